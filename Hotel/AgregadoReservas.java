@@ -0,0 +1,155 @@
+package Hotel;
+
+/**
+ * La clase AgregadoReservas contiene el resultado de una consulta al cubo de ingresos:
+ * para cada tipo de habitación, el número de reservas, las noches, las personas y
+ * los ingresos de un rango de meses.
+ */
+class AgregadoReservas {
+    private final long[] reservas;
+    private final long[] noches;
+    private final long[] personas;
+    private final long[] ingresos;
+
+    /**
+     * Constructor de la clase AgregadoReservas.
+     * Todos los arreglos están indexados por código de tipo de habitación.
+     *
+     * @param reservas el número de reservas de cada tipo
+     * @param noches las noches reservadas de cada tipo
+     * @param personas las personas de cada tipo
+     * @param ingresos los ingresos de cada tipo, en centavos
+     */
+    public AgregadoReservas(long[] reservas, long[] noches, long[] personas, long[] ingresos) {
+        this.reservas = reservas;
+        this.noches = noches;
+        this.personas = personas;
+        this.ingresos = ingresos;
+    }
+
+    /**
+     * Crea un agregado sin reservas de ningún tipo.
+     *
+     * @return un agregado vacío
+     */
+    public static AgregadoReservas vacio() {
+        int tipos = RegistroTiposHabitacion.cantidad();
+        return new AgregadoReservas(new long[tipos], new long[tipos], new long[tipos], new long[tipos]);
+    }
+
+    /**
+     * Combina este agregado con el de otro hotel, por ejemplo para obtener el de toda
+     * una cadena. Ninguno de los dos cambia.
+     *
+     * @param otro el agregado a combinar
+     * @return un agregado con la suma de ambos, tipo por tipo
+     */
+    public AgregadoReservas combinar(AgregadoReservas otro) {
+        return new AgregadoReservas(sumar(reservas, otro.reservas), sumar(noches, otro.noches),
+                sumar(personas, otro.personas), sumar(ingresos, otro.ingresos));
+    }
+
+    /**
+     * Obtiene el número de reservas de un tipo de habitación.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @return el número de reservas
+     */
+    public long getReservas(String tipo) {
+        return reservas[codigo(tipo)];
+    }
+
+    /**
+     * Obtiene las noches reservadas de un tipo de habitación.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @return el número de noches
+     */
+    public long getNoches(String tipo) {
+        return noches[codigo(tipo)];
+    }
+
+    /**
+     * Obtiene el número de personas de las reservas de un tipo de habitación.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @return el número de personas
+     */
+    public long getPersonas(String tipo) {
+        return personas[codigo(tipo)];
+    }
+
+    /**
+     * Obtiene los ingresos de un tipo de habitación.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @return los ingresos del tipo
+     */
+    public double getIngresos(String tipo) {
+        return ingresos[codigo(tipo)] / 100.0;
+    }
+
+    /**
+     * Obtiene el número total de reservas de todos los tipos.
+     *
+     * @return el número total de reservas
+     */
+    public long getTotalReservas() {
+        return sumar(reservas);
+    }
+
+    /**
+     * Obtiene el total de noches reservadas de todos los tipos.
+     *
+     * @return el total de noches
+     */
+    public long getTotalNoches() {
+        return sumar(noches);
+    }
+
+    /**
+     * Obtiene los ingresos totales de todos los tipos.
+     *
+     * @return los ingresos totales
+     */
+    public double getTotalIngresos() {
+        return sumar(ingresos) / 100.0;
+    }
+
+    /**
+     * Obtiene los ingresos por tipo de habitación del agregado.
+     *
+     * @return los ingresos por tipo
+     */
+    public IngresosPorTipo getIngresosPorTipo() {
+        IngresosPorTipo resultado = new IngresosPorTipo();
+        for (int codigo = 0; codigo < ingresos.length; codigo++) {
+            resultado.sumar(codigo, ingresos[codigo]);
+        }
+        return resultado;
+    }
+
+    private static long[] sumar(long[] a, long[] b) {
+        long[] suma = new long[a.length];
+        for (int i = 0; i < suma.length; i++) {
+            suma[i] = a[i] + b[i];
+        }
+        return suma;
+    }
+
+    private static long sumar(long[] valores) {
+        long total = 0;
+        for (long valor : valores) {
+            total += valor;
+        }
+        return total;
+    }
+
+    private static int codigo(String tipo) {
+        int codigo = RegistroTiposHabitacion.codigoDe(tipo);
+        if (codigo < 0) {
+            throw new IllegalArgumentException("Tipo de habitación desconocido: " + tipo);
+        }
+        return codigo;
+    }
+}
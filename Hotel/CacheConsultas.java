@@ -0,0 +1,281 @@
+package Hotel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * La clase CacheConsultas guarda los resultados de consultas repetidas con un tamaño
+ * máximo; cuando se llena, descarta los resultados usados hace más tiempo (LRU).
+ * Lleva la cuenta de aciertos, fallos, desalojos e invalidaciones para poder observar
+ * su efectividad.
+ *
+ * Los aciertos no toman ningún candado, y los resultados que faltan se calculan fuera
+ * del monitor de la cache, que solo se toma para guardarlos, desalojar o invalidar; así
+ * una consulta lenta no hace esperar a las demás. Si dos hilos piden a la vez la misma
+ * clave que falta, ambos la calculan y se guarda el primer resultado.
+ *
+ * Cada clave puede declarar las etiquetas de los datos de los que depende, por ejemplo
+ * los pares (tipo, mes) de una consulta de ingresos. La cache mantiene un índice de
+ * etiqueta a claves, de modo que {@link #invalidar(long[], Predicate)} solo revisa las
+ * claves de las etiquetas afectadas en lugar de recorrer todas.
+ *
+ * Los resultados guardados no deben modificarse después de calculados.
+ *
+ * @param <K> el tipo de la clave de la consulta
+ * @param <V> el tipo del resultado
+ */
+class CacheConsultas<K, V> {
+    private final int capacidad;
+    private final Function<K, long[]> etiquetas;
+    private final Map<K, Entrada<V>> entradas = new ConcurrentHashMap<>();
+    private final Map<Long, Set<K>> porEtiqueta = new HashMap<>();
+    private final Set<K> sinEtiquetas = new HashSet<>();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private long desalojos;
+    private long invalidaciones;
+
+    /**
+     * Constructor de una cache cuyas claves no declaran etiquetas; cualquier
+     * invalidación revisa todas las claves.
+     *
+     * @param capacidad el número máximo de resultados guardados
+     */
+    public CacheConsultas(int capacidad) {
+        this(capacidad, clave -> null);
+    }
+
+    /**
+     * Constructor de la clase CacheConsultas.
+     *
+     * @param capacidad el número máximo de resultados guardados
+     * @param etiquetas la función que da las etiquetas de las que depende cada clave, o
+     *                  null si la clave depende de todo y debe revisarse en cada invalidación
+     */
+    public CacheConsultas(int capacidad, Function<K, long[]> etiquetas) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+        }
+        this.capacidad = capacidad;
+        this.etiquetas = etiquetas;
+    }
+
+    /**
+     * Obtiene el resultado guardado de una consulta o, si no está, lo calcula y lo guarda.
+     * El cálculo se hace sin tomar el monitor de la cache.
+     *
+     * @param clave la clave de la consulta
+     * @param calcular la función que calcula el resultado cuando no está guardado
+     * @return el resultado de la consulta
+     */
+    public V obtener(K clave, Function<K, V> calcular) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada != null) {
+            aciertos.increment();
+            entrada.usada = System.nanoTime();
+            return entrada.valor;
+        }
+        fallos.increment();
+        V valor = calcular.apply(clave);
+        return guardar(clave, valor);
+    }
+
+    private synchronized V guardar(K clave, V valor) {
+        Entrada<V> guardada = entradas.get(clave);
+        if (guardada != null) {
+            return guardada.valor;
+        }
+        entradas.put(clave, new Entrada<>(valor, System.nanoTime()));
+        long[] deClave = etiquetas.apply(clave);
+        if (deClave == null) {
+            sinEtiquetas.add(clave);
+        } else {
+            for (long etiqueta : deClave) {
+                porEtiqueta.computeIfAbsent(etiqueta, e -> new HashSet<>()).add(clave);
+            }
+        }
+        if (entradas.size() > capacidad) {
+            desalojar();
+        }
+        return valor;
+    }
+
+    /**
+     * Descarta los resultados usados hace más tiempo hasta dejar libre una décima parte
+     * de la capacidad, para no tener que ordenar las entradas en cada fallo.
+     */
+    private void desalojar() {
+        List<Map.Entry<K, Entrada<V>>> ordenadas = new ArrayList<>(entradas.entrySet());
+        ordenadas.sort(Comparator.comparingLong(entrada -> entrada.getValue().usada));
+        int sobrantes = entradas.size() - capacidad + Math.max(1, capacidad / 10);
+        for (int i = 0; i < sobrantes && i < ordenadas.size(); i++) {
+            quitar(ordenadas.get(i).getKey());
+            desalojos++;
+        }
+    }
+
+    private void quitar(K clave) {
+        if (entradas.remove(clave) == null) {
+            return;
+        }
+        long[] deClave = etiquetas.apply(clave);
+        if (deClave == null) {
+            sinEtiquetas.remove(clave);
+            return;
+        }
+        for (long etiqueta : deClave) {
+            Set<K> claves = porEtiqueta.get(etiqueta);
+            if (claves != null) {
+                claves.remove(clave);
+                if (claves.isEmpty()) {
+                    porEtiqueta.remove(etiqueta);
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta los resultados que dependen de alguna de las etiquetas indicadas y cuyas
+     * claves cumplen una condición. Solo se revisan las claves de esas etiquetas y las
+     * que no declaran etiquetas.
+     *
+     * @param afectadas las etiquetas de los datos que cambiaron, o null para revisar todas las claves
+     * @param afectada la condición que indica si una clave quedó desactualizada
+     */
+    public synchronized void invalidar(long[] afectadas, Predicate<K> afectada) {
+        if (afectadas == null) {
+            invalidarSi(afectada);
+            return;
+        }
+        Set<K> candidatas = new HashSet<>(sinEtiquetas);
+        for (long etiqueta : afectadas) {
+            Set<K> claves = porEtiqueta.get(etiqueta);
+            if (claves != null) {
+                candidatas.addAll(claves);
+            }
+        }
+        for (K clave : candidatas) {
+            if (afectada.test(clave)) {
+                quitar(clave);
+                invalidaciones++;
+            }
+        }
+    }
+
+    /**
+     * Descarta los resultados cuyas claves cumplen una condición, revisando todas.
+     *
+     * @param afectada la condición que indica si una clave quedó desactualizada
+     */
+    public synchronized void invalidarSi(Predicate<K> afectada) {
+        for (K clave : new ArrayList<>(entradas.keySet())) {
+            if (afectada.test(clave)) {
+                quitar(clave);
+                invalidaciones++;
+            }
+        }
+    }
+
+    /**
+     * Descarta todos los resultados guardados.
+     */
+    public synchronized void invalidarTodo() {
+        invalidaciones += entradas.size();
+        entradas.clear();
+        porEtiqueta.clear();
+        sinEtiquetas.clear();
+    }
+
+    /**
+     * Obtiene los contadores actuales de la cache.
+     *
+     * @return una copia de los contadores
+     */
+    public synchronized Contadores contadores() {
+        return new Contadores(aciertos.sum(), fallos.sum(), desalojos, invalidaciones, entradas.size(), capacidad);
+    }
+
+    /**
+     * Resultado guardado con el momento de su último uso, que se actualiza sin candado;
+     * basta con que sea aproximado para elegir qué desalojar.
+     */
+    private static final class Entrada<V> {
+        private final V valor;
+        private volatile long usada;
+
+        Entrada(V valor, long usada) {
+            this.valor = valor;
+            this.usada = usada;
+        }
+    }
+
+    /**
+     * Contadores de una cache en un momento dado.
+     */
+    static class Contadores {
+        private final long aciertos;
+        private final long fallos;
+        private final long desalojos;
+        private final long invalidaciones;
+        private final int tamaño;
+        private final int capacidad;
+
+        Contadores(long aciertos, long fallos, long desalojos, long invalidaciones, int tamaño, int capacidad) {
+            this.aciertos = aciertos;
+            this.fallos = fallos;
+            this.desalojos = desalojos;
+            this.invalidaciones = invalidaciones;
+            this.tamaño = tamaño;
+            this.capacidad = capacidad;
+        }
+
+        public long getAciertos() {
+            return aciertos;
+        }
+
+        public long getFallos() {
+            return fallos;
+        }
+
+        public long getDesalojos() {
+            return desalojos;
+        }
+
+        public long getInvalidaciones() {
+            return invalidaciones;
+        }
+
+        public int getTamaño() {
+            return tamaño;
+        }
+
+        public int getCapacidad() {
+            return capacidad;
+        }
+
+        /**
+         * Calcula la proporción de consultas respondidas desde la cache.
+         *
+         * @return la tasa de aciertos, entre 0 y 1
+         */
+        public double getTasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0 : (double) aciertos / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("aciertos=%d fallos=%d desalojos=%d invalidaciones=%d tamaño=%d/%d tasa=%.1f%%",
+                    aciertos, fallos, desalojos, invalidaciones, tamaño, capacidad, getTasaAciertos() * 100);
+        }
+    }
+}
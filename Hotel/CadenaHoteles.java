@@ -0,0 +1,313 @@
+package Hotel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * La clase CadenaHoteles es el registro de los hoteles de una cadena. Cada hotel tiene
+ * su propia carpeta, con su archivo de reservas, su diario, su histórico de meses
+ * archivados y su inventario, y su propio {@link ServicioReservas}; los hoteles no
+ * comparten nada salvo el motor de tarifas.
+ *
+ * El inventario de un hotel se lee del archivo {@value #ARCHIVO_INVENTARIO} de su
+ * carpeta, con el número de habitaciones de cada tipo (los espacios del nombre del tipo
+ * se escriben con una barra invertida):
+ *
+ * <pre>
+ *     Estandar=40
+ *     Ejecutiva=20
+ *     Suite\ Presidencial=4
+ * </pre>
+ *
+ * Los tipos que no aparecen, o todos si el hotel no tiene el archivo, no tienen límite
+ * de habitaciones.
+ *
+ * Los informes de la cadena consultan todos los hoteles en paralelo, en el pool
+ * fork-join común, y combinan sus resultados de dos en dos, así que su duración depende
+ * del número de procesadores y no del número de hoteles.
+ */
+class CadenaHoteles implements Closeable {
+    static final String ARCHIVO_RESERVAS = "reservas.csv";
+    static final String DIRECTORIO_HISTORICO = "reservas";
+    static final String ARCHIVO_INVENTARIO = "inventario.properties";
+
+    private final String directorio;
+    private final MotorTarifas motorTarifas;
+    private final int mesesActivos;
+    private final Map<String, Sede> sedes = new LinkedHashMap<>();
+
+    /**
+     * Constructor de la clase CadenaHoteles. No abre ningún hotel.
+     *
+     * @param directorio el directorio que contiene una carpeta por hotel
+     * @param motorTarifas el motor de tarifas de todos los hoteles
+     * @param mesesActivos el número de meses que cada hotel mantiene en memoria;
+     *                     los anteriores se archivan al abrirlo
+     */
+    public CadenaHoteles(String directorio, MotorTarifas motorTarifas, int mesesActivos) {
+        this.directorio = directorio;
+        this.motorTarifas = motorTarifas;
+        this.mesesActivos = mesesActivos;
+    }
+
+    /**
+     * Abre todos los hoteles que tienen carpeta en el directorio de la cadena, en orden
+     * alfabético.
+     *
+     * @return los nombres de los hoteles abiertos, incluidos los que ya lo estaban
+     * @throws IOException si no se puede recorrer el directorio o abrir algún hotel
+     */
+    public synchronized List<String> abrirTodos() throws IOException {
+        List<String> nombres = new ArrayList<>();
+        Path ruta = Paths.get(directorio);
+        if (!Files.isDirectory(ruta)) {
+            return nombres;
+        }
+        try (DirectoryStream<Path> carpetas = Files.newDirectoryStream(ruta, Files::isDirectory)) {
+            for (Path carpeta : carpetas) {
+                nombres.add(carpeta.getFileName().toString());
+            }
+        }
+        Collections.sort(nombres);
+        for (String nombre : nombres) {
+            abrir(nombre);
+        }
+        return nombres;
+    }
+
+    /**
+     * Abre un hotel de la cadena en su carpeta dentro del directorio de la cadena,
+     * creándola si no existe.
+     *
+     * @param nombre el nombre del hotel, que es también el de su carpeta
+     * @return el hotel abierto, o el que ya estaba abierto con ese nombre
+     * @throws IllegalArgumentException si el nombre está vacío o no sirve como nombre de carpeta,
+     *                                  o si el inventario del hotel no es válido
+     * @throws IOException si ocurre un error al crear la carpeta o al recuperar las reservas
+     */
+    public synchronized Sede abrir(String nombre) throws IOException {
+        if (nombre == null || nombre.isBlank() || nombre.startsWith(".")
+                || nombre.contains("/") || nombre.contains("\\")) {
+            throw new IllegalArgumentException("Nombre de hotel no válido: " + nombre);
+        }
+        return abrir(nombre, Paths.get(directorio, nombre).toString());
+    }
+
+    /**
+     * Abre un hotel de la cadena en una carpeta cualquiera, creándola si no existe.
+     * Lee su inventario, recupera sus reservas del archivo y del diario, archiva los
+     * meses anteriores a la ventana activa y abre su diario para las nuevas altas.
+     *
+     * @param nombre el nombre del hotel
+     * @param carpeta la carpeta con los archivos del hotel
+     * @return el hotel abierto, o el que ya estaba abierto con ese nombre
+     * @throws IllegalArgumentException si el inventario del hotel no es válido
+     * @throws IOException si ocurre un error al crear la carpeta, al leer el inventario o al
+     *                     recuperar las reservas
+     */
+    public synchronized Sede abrir(String nombre, String carpeta) throws IOException {
+        Sede abierta = sedes.get(nombre);
+        if (abierta != null) {
+            return abierta;
+        }
+        Files.createDirectories(Paths.get(carpeta));
+        String archivo = Paths.get(carpeta, ARCHIVO_RESERVAS).toString();
+        Hotel hotel = new Hotel(cargarInventario(Paths.get(carpeta, ARCHIVO_INVENTARIO)), motorTarifas);
+        HistoricoReservas historico = new HistoricoReservas(Paths.get(carpeta, DIRECTORIO_HISTORICO).toString());
+        LocalDate inicioVentana = LocalDate.now().minusMonths(mesesActivos);
+        ResultadoCarga carga = null;
+        try {
+            carga = DiarioReservas.recuperar(archivo, hotel, Runtime.getRuntime().availableProcessors(),
+                    historico, IndiceReservas.claveMes(inicioVentana.getYear(), inicioVentana.getMonthValue()));
+        } catch (NoSuchFileException e) {
+            // Hotel nuevo, sin reservas guardadas
+        }
+        ServicioReservas servicio = new ServicioReservas(hotel, archivo, new DiarioReservas(archivo));
+        if (historico.getFilasArchivadas() > 0) {
+            servicio.compactar();
+        }
+        Sede sede = new Sede(nombre, servicio, historico, carga);
+        sedes.put(nombre, sede);
+        return sede;
+    }
+
+    /**
+     * Lee el inventario de un hotel.
+     *
+     * @param archivo el archivo de inventario
+     * @return el número de habitaciones de cada tipo, o un mapa vacío si el archivo no existe
+     * @throws IllegalArgumentException si un tipo no existe o un número de habitaciones no es válido
+     * @throws IOException si ocurre un error al leer el archivo
+     */
+    static Map<String, Integer> cargarInventario(Path archivo) throws IOException {
+        if (!Files.exists(archivo)) {
+            return Map.of();
+        }
+        Properties propiedades = new Properties();
+        try (Reader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            propiedades.load(lector);
+        }
+        Map<String, Integer> inventario = new HashMap<>();
+        for (String tipo : propiedades.stringPropertyNames()) {
+            if (RegistroTiposHabitacion.codigoDe(tipo) < 0) {
+                throw new IllegalArgumentException("Tipo de habitación desconocido en " + archivo + ": " + tipo);
+            }
+            String valor = propiedades.getProperty(tipo).trim();
+            try {
+                inventario.put(tipo, Integer.parseInt(valor));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Número de habitaciones no válido en " + archivo + ": "
+                        + tipo + "=" + valor);
+            }
+        }
+        return inventario;
+    }
+
+    /**
+     * Obtiene un hotel abierto de la cadena.
+     *
+     * @param nombre el nombre del hotel
+     * @return el hotel, o null si no hay ninguno abierto con ese nombre
+     */
+    public synchronized Sede obtener(String nombre) {
+        return sedes.get(nombre);
+    }
+
+    /**
+     * Obtiene los hoteles abiertos de la cadena, en el orden en que se abrieron.
+     *
+     * @return una copia de la lista de hoteles abiertos
+     */
+    public synchronized List<Sede> getSedes() {
+        return new ArrayList<>(sedes.values());
+    }
+
+    /**
+     * Consulta el cubo de ingresos de todos los hoteles de la cadena entre dos meses,
+     * ambos incluidos, y combina los resultados.
+     *
+     * @param mesDesde el mes inicial del rango (1 a 12)
+     * @param añoDesde el año inicial del rango
+     * @param mesHasta el mes final del rango (1 a 12)
+     * @param añoHasta el año final del rango
+     * @return las reservas, noches, personas e ingresos de toda la cadena por tipo de habitación
+     * @throws IllegalArgumentException si alguno de los meses no está entre 1 y 12
+     */
+    public AgregadoReservas consultarAgregado(int mesDesde, int añoDesde, int mesHasta, int añoHasta) {
+        CuboIngresos.verificarMes(mesDesde);
+        CuboIngresos.verificarMes(mesHasta);
+        return getSedes().parallelStream()
+                .map(sede -> sede.getHotel().consultarAgregado(mesDesde, añoDesde, mesHasta, añoHasta))
+                .reduce(AgregadoReservas.vacio(), AgregadoReservas::combinar);
+    }
+
+    /**
+     * Calcula los ingresos de toda la cadena por tipo de habitación en un mes.
+     *
+     * @param mes el mes (1 a 12)
+     * @param año el año
+     * @return los ingresos de todos los hoteles por tipo de habitación
+     */
+    public IngresosPorTipo calcularIngresosPorTipo(int mes, int año) {
+        return consultarAgregado(mes, año, mes, año).getIngresosPorTipo();
+    }
+
+    /**
+     * Calcula la ocupación de todos los hoteles de la cadena entre dos fechas, ambas
+     * incluidas, y la combina.
+     *
+     * @param desde la primera noche del rango
+     * @param hasta la última noche del rango
+     * @return la ocupación de toda la cadena por tipo de habitación
+     */
+    public OcupacionHotel calcularOcupacion(LocalDate desde, LocalDate hasta) {
+        int tipos = RegistroTiposHabitacion.cantidad();
+        return getSedes().parallelStream()
+                .map(sede -> sede.getHotel().calcularOcupacion(desde, hasta))
+                .reduce(OcupacionHotel::combinar)
+                .orElseGet(() -> new OcupacionHotel(desde, hasta, new long[tipos], new int[tipos]));
+    }
+
+    /**
+     * Cierra todos los hoteles de la cadena, compactando sus diarios. Si alguno falla,
+     * intenta cerrar el resto y lanza el primer error.
+     *
+     * @throws IOException si ocurre un error al cerrar algún hotel
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException error = null;
+        for (Sede sede : sedes.values()) {
+            try {
+                sede.getServicio().close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+        sedes.clear();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Un hotel abierto de la cadena, con su servicio de reservas y su histórico.
+     */
+    static class Sede {
+        private final String nombre;
+        private final ServicioReservas servicio;
+        private final HistoricoReservas historico;
+        private final ResultadoCarga carga;
+
+        private Sede(String nombre, ServicioReservas servicio, HistoricoReservas historico, ResultadoCarga carga) {
+            this.nombre = nombre;
+            this.servicio = servicio;
+            this.historico = historico;
+            this.carga = carga;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public Hotel getHotel() {
+            return servicio.getHotel();
+        }
+
+        public ServicioReservas getServicio() {
+            return servicio;
+        }
+
+        public HistoricoReservas getHistorico() {
+            return historico;
+        }
+
+        /**
+         * Obtiene el resultado de la recuperación de las reservas al abrir el hotel.
+         *
+         * @return el resultado de la carga, o null si el hotel no tenía reservas guardadas
+         */
+        public ResultadoCarga getCarga() {
+            return carga;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package Hotel;
+
+import java.nio.ByteBuffer;
+import java.time.format.DateTimeParseException;
+
+/**
+ * La clase Calendario convierte fechas entre el formato ISO (aaaa-mm-dd), el día desde
+ * la época (1970-01-01) y la clave de mes aaaamm con aritmética entera, sin crear
+ * objetos {@link java.time.LocalDate}. Las reservas guardan sus fechas como días desde
+ * la época, y estas conversiones son las que usan la carga de archivos y las consultas.
+ */
+class Calendario {
+    /** Valor que devuelve {@link #parsear(ByteBuffer, int)} cuando la fecha no es válida. */
+    static final int FECHA_INVALIDA = Integer.MIN_VALUE;
+
+    private static final int DIAS_POR_ERA = 146097;
+    private static final int DIAS_ERA_HASTA_EPOCA = 719468;
+
+    private Calendario() {
+    }
+
+    /**
+     * Calcula el día desde la época de una fecha del calendario gregoriano.
+     *
+     * @param año el año
+     * @param mes el mes (1 a 12)
+     * @param dia el día del mes
+     * @return el número de días desde el 1 de enero de 1970
+     */
+    public static int diaEpoch(int año, int mes, int dia) {
+        int a = mes <= 2 ? año - 1 : año;
+        int era = Math.floorDiv(a, 400);
+        int añoEra = a - era * 400;
+        int diaAño = (153 * (mes > 2 ? mes - 3 : mes + 9) + 2) / 5 + dia - 1;
+        int diaEra = añoEra * 365 + añoEra / 4 - añoEra / 100 + diaAño;
+        return era * DIAS_POR_ERA + diaEra - DIAS_ERA_HASTA_EPOCA;
+    }
+
+    /**
+     * Calcula la clave aaaamm del mes al que pertenece un día desde la época.
+     *
+     * @param diaEpoch el número de días desde el 1 de enero de 1970
+     * @return la clave del mes, igual a {@link IndiceReservas#claveMes(int, int)}
+     */
+    public static int claveMes(int diaEpoch) {
+        int z = diaEpoch + DIAS_ERA_HASTA_EPOCA;
+        int era = Math.floorDiv(z, DIAS_POR_ERA);
+        int diaEra = z - era * DIAS_POR_ERA;
+        int añoEra = (diaEra - diaEra / 1460 + diaEra / 36524 - diaEra / 146096) / 365;
+        int diaAño = diaEra - (365 * añoEra + añoEra / 4 - añoEra / 100);
+        int mesMarzo = (5 * diaAño + 2) / 153;
+        int mes = mesMarzo < 10 ? mesMarzo + 3 : mesMarzo - 9;
+        int año = añoEra + era * 400 + (mes <= 2 ? 1 : 0);
+        return IndiceReservas.claveMes(año, mes);
+    }
+
+    /**
+     * Calcula el primer día de un mes como día desde la época.
+     *
+     * @param claveMes la clave del mes con el formato aaaamm
+     * @return el número de días desde la época del día 1 del mes
+     */
+    public static int primerDia(int claveMes) {
+        return diaEpoch(claveMes / 100, claveMes % 100, 1);
+    }
+
+    /**
+     * Calcula el número de días de un mes.
+     *
+     * @param año el año
+     * @param mes el mes (1 a 12)
+     * @return el número de días del mes
+     */
+    public static int diasDelMes(int año, int mes) {
+        if (mes == 2) {
+            return (año % 4 == 0 && (año % 100 != 0 || año % 400 == 0)) ? 29 : 28;
+        }
+        return mes == 4 || mes == 6 || mes == 9 || mes == 11 ? 30 : 31;
+    }
+
+    /**
+     * Interpreta una fecha con el formato aaaa-mm-dd.
+     *
+     * @param texto la fecha a interpretar
+     * @return el número de días desde la época de la fecha
+     * @throws DateTimeParseException si el texto no tiene el formato o la fecha no existe
+     */
+    public static int parsear(CharSequence texto) {
+        if (texto.length() == 10 && texto.charAt(4) == '-' && texto.charAt(7) == '-') {
+            int año = digitos(texto, 0, 4);
+            int mes = digitos(texto, 5, 7);
+            int dia = digitos(texto, 8, 10);
+            if (año >= 0 && mes >= 1 && mes <= 12 && dia >= 1 && dia <= diasDelMes(año, mes)) {
+                return diaEpoch(año, mes, dia);
+            }
+        }
+        throw new DateTimeParseException("Fecha no válida: " + texto, texto, 0);
+    }
+
+    /**
+     * Interpreta una fecha con el formato aaaa-mm-dd escrita en un buffer de bytes.
+     *
+     * @param buffer el buffer que contiene la fecha
+     * @param inicio la posición del primer byte de la fecha; deben quedar al menos 10 bytes
+     * @return el número de días desde la época de la fecha, o {@link #FECHA_INVALIDA}
+     *         si no tiene el formato o la fecha no existe
+     */
+    public static int parsear(ByteBuffer buffer, int inicio) {
+        if (buffer.get(inicio + 4) != '-' || buffer.get(inicio + 7) != '-') {
+            return FECHA_INVALIDA;
+        }
+        int año = digitos(buffer, inicio, inicio + 4);
+        int mes = digitos(buffer, inicio + 5, inicio + 7);
+        int dia = digitos(buffer, inicio + 8, inicio + 10);
+        if (año < 0 || mes < 1 || mes > 12 || dia < 1 || dia > diasDelMes(año, mes)) {
+            return FECHA_INVALIDA;
+        }
+        return diaEpoch(año, mes, dia);
+    }
+
+    private static int digitos(CharSequence texto, int inicio, int fin) {
+        int valor = 0;
+        for (int i = inicio; i < fin; i++) {
+            int digito = texto.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private static int digitos(ByteBuffer buffer, int inicio, int fin) {
+        int valor = 0;
+        for (int i = inicio; i < fin; i++) {
+            int digito = buffer.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,124 @@
+package Hotel;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * La clase ClienteCarga genera carga contra un {@link ServidorReservas} para medir su
+ * rendimiento en una sola máquina. Varios hilos envían peticiones sin pausa durante un
+ * tiempo fijo, con una mezcla parecida a la del uso real: 80 % consultas de ingresos,
+ * 15 % listados de reservas y 5 % altas. Al terminar informa las peticiones por segundo
+ * y la distribución de latencias, incluido el percentil 99.
+ *
+ * Si no se indica la dirección de un servidor, levanta uno en la misma JVM, en un
+ * puerto libre, sobre un hotel generado con {@link GeneradorReservas}.
+ *
+ * Uso: {@code java Hotel.ClienteCarga [url|local] [hilos] [segundos] [reservasIniciales]}
+ */
+public class ClienteCarga {
+    private static final long SEMILLA = 42;
+
+    public static void main(String[] args) throws Exception {
+        String destino = args.length > 0 ? args[0] : "local";
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int reservasIniciales = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+
+        ServidorReservas servidor = null;
+        if ("local".equals(destino)) {
+            ServidorReservas.configurarSinRetardo();
+            Hotel hotel = new GeneradorReservas(SEMILLA).generarHotel(reservasIniciales);
+            servidor = new ServidorReservas(new ServicioReservas(hotel), 0);
+            destino = "http://localhost:" + servidor.getPuerto();
+            System.out.println("Servidor local en " + destino + " con " + reservasIniciales + " reservas");
+        }
+        try {
+            ejecutar(destino, hilos, segundos);
+        } finally {
+            if (servidor != null) {
+                servidor.close();
+            }
+        }
+    }
+
+    private static void ejecutar(String destino, int hilos, int segundos) throws InterruptedException {
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Histograma latencias = new Histograma();
+        LongAdder errores = new LongAdder();
+        LongAdder rechazadas = new LongAdder();
+
+        // Calentamiento: una cuarta parte del tiempo, sin registrar latencias
+        correr(cliente, destino, hilos, segundos * 250L, new Histograma(), new LongAdder(), new LongAdder());
+
+        long inicio = System.nanoTime();
+        correr(cliente, destino, hilos, segundos * 1000L, latencias, errores, rechazadas);
+        double transcurrido = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.printf("%d hilos, %.1f s: %d peticiones, %.0f peticiones/s%n", hilos, transcurrido,
+                latencias.getCantidad(), latencias.getCantidad() / transcurrido);
+        System.out.printf("latencia: media %.0f µs, p50 %d µs, p99 %d µs, p99.9 %d µs, máximo %d µs%n",
+                latencias.getMediaNanos() / 1000, latencias.getPercentil50Nanos() / 1000,
+                latencias.getPercentil99Nanos() / 1000, latencias.getPercentil999Nanos() / 1000,
+                latencias.getMaximoNanos() / 1000);
+        System.out.printf("altas rechazadas: %d, errores: %d%n", rechazadas.sum(), errores.sum());
+    }
+
+    private static void correr(HttpClient cliente, String destino, int hilos, long milisegundos,
+                               Histograma latencias, LongAdder errores, LongAdder rechazadas)
+            throws InterruptedException {
+        long fin = System.nanoTime() + milisegundos * 1_000_000;
+        List<Thread> trabajadores = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            SplittableRandom azar = new SplittableRandom(SEMILLA + h);
+            Thread trabajador = new Thread(() -> {
+                while (System.nanoTime() < fin) {
+                    HttpRequest peticion = siguientePeticion(destino, azar);
+                    long inicio = System.nanoTime();
+                    try {
+                        int estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latencias.registrar(System.nanoTime() - inicio);
+                        if (estado == 409) {
+                            rechazadas.increment();
+                        } else if (estado >= 400) {
+                            errores.increment();
+                        }
+                    } catch (IOException e) {
+                        errores.increment();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "cliente-carga-" + h);
+            trabajadores.add(trabajador);
+            trabajador.start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+    }
+
+    private static HttpRequest siguientePeticion(String destino, SplittableRandom azar) {
+        int tipo = azar.nextInt(100);
+        if (tipo < 80) {
+            return HttpRequest.newBuilder(URI.create(destino + "/ingresos?mes=" + (1 + azar.nextInt(12))
+                    + "&anio=" + (2015 + azar.nextInt(10)))).GET().build();
+        }
+        if (tipo < 95) {
+            return HttpRequest.newBuilder(URI.create(destino + "/reservas?cursor=" + azar.nextInt(1000)
+                    + "&limite=20")).GET().build();
+        }
+        String reserva = RegistroTiposHabitacion.nombre(azar.nextInt(RegistroTiposHabitacion.cantidad())) + ","
+                + (2015 + azar.nextInt(10)) + "-" + String.format("%02d", 1 + azar.nextInt(12)) + "-"
+                + String.format("%02d", 1 + azar.nextInt(28)) + "," + (1 + azar.nextInt(14)) + ","
+                + (1 + azar.nextInt(4));
+        return HttpRequest.newBuilder(URI.create(destino + "/reservas"))
+                .POST(HttpRequest.BodyPublishers.ofString(reserva)).build();
+    }
+}
@@ -0,0 +1,202 @@
+package Hotel;
+
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+/**
+ * La clase CuboIngresos es un agregado materializado de las reservas del hotel por
+ * tipo de habitación y mes de inicio. Para cada celda (tipo, año-mes) guarda el número
+ * de reservas, las noches, las personas y los ingresos en centavos.
+ *
+ * Las celdas se guardan en arreglos densos que cubren los meses de 1970 a 2149, el mismo
+ * rango de fechas que admite la disponibilidad del hotel. El cubo se actualiza con cada
+ * alta, y cualquier consulta por rango de meses (un mes, un trimestre, lo que va del año)
+ * suma solo las celdas del rango, sin recorrer las reservas.
+ */
+class CuboIngresos {
+    private static final int AÑO_INICIAL = 1970;
+    private static final int MESES = 180 * 12;
+    private static final int FILAS_MINIMAS_POR_PARTE = 1 << 16;
+
+    private final int tipos;
+    private final long[] reservas;
+    private final long[] noches;
+    private final long[] personas;
+    private final long[] ingresos;
+
+    /**
+     * Constructor de la clase CuboIngresos.
+     * Inicializa un cubo vacío para todos los tipos de habitación.
+     */
+    public CuboIngresos() {
+        tipos = RegistroTiposHabitacion.cantidad();
+        reservas = new long[tipos * MESES];
+        noches = new long[tipos * MESES];
+        personas = new long[tipos * MESES];
+        ingresos = new long[tipos * MESES];
+    }
+
+    /**
+     * Construye el cubo de todas las reservas de una vista. Si la vista es grande,
+     * sus filas se reparten en partes que se agregan en paralelo y luego se suman.
+     *
+     * @param vista las reservas a agregar
+     * @return el cubo de las reservas de la vista
+     */
+    public static CuboIngresos construir(VistaReservas vista) {
+        int partes = Math.min(vista.size() / FILAS_MINIMAS_POR_PARTE,
+                4 * Runtime.getRuntime().availableProcessors());
+        if (partes <= 1) {
+            CuboIngresos cubo = new CuboIngresos();
+            cubo.agregarFilas(vista, 0, vista.size());
+            return cubo;
+        }
+        int filasPorParte = (vista.size() + partes - 1) / partes;
+        return IntStream.range(0, partes).parallel()
+                .mapToObj(parte -> {
+                    CuboIngresos cubo = new CuboIngresos();
+                    cubo.agregarFilas(vista, parte * filasPorParte,
+                            Math.min(vista.size(), (parte + 1) * filasPorParte));
+                    return cubo;
+                })
+                .reduce((a, b) -> {
+                    a.sumar(b);
+                    return a;
+                })
+                .get();
+    }
+
+    /**
+     * Indica si conviene construir aparte el cubo de un lote y sumarlo al del hotel de
+     * una vez, en lugar de agregar sus filas una por una. Sumar un cubo recorre todas sus
+     * celdas, así que solo compensa cuando el lote tiene más filas que el cubo celdas.
+     *
+     * @param vista las reservas del lote
+     * @return true si conviene usar {@link #construir(VistaReservas)} y {@link #sumar(CuboIngresos)}
+     */
+    public static boolean convieneConstruir(VistaReservas vista) {
+        return vista.size() > RegistroTiposHabitacion.cantidad() * MESES;
+    }
+
+    /**
+     * Agrega al cubo todas las reservas de una vista, una por una.
+     *
+     * @param vista las reservas a agregar
+     * @throws IllegalArgumentException si alguna fecha está fuera del rango del cubo
+     */
+    public void agregarTodas(VistaReservas vista) {
+        agregarFilas(vista, 0, vista.size());
+    }
+
+    private void agregarFilas(VistaReservas vista, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            agregar(vista.codigoTipo(i), vista.diaEpoch(i), vista.dias(i), vista.personas(i), vista.costoCentavos(i));
+        }
+    }
+
+    /**
+     * Agrega una reserva a la celda de su tipo y mes de inicio.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param diaEpoch la fecha de inicio como día desde la época
+     * @param dias el número de noches de la reserva
+     * @param personas el número de personas
+     * @param costoCentavos el costo total de la reserva en centavos
+     * @throws IllegalArgumentException si la fecha está fuera del rango del cubo
+     */
+    public void agregar(int codigoTipo, int diaEpoch, int dias, int personas, long costoCentavos) {
+        int claveMes = Calendario.claveMes(diaEpoch);
+        int celda = celda(codigoTipo, indiceMes(claveMes / 100, claveMes % 100));
+        if (celda < 0) {
+            throw new IllegalArgumentException("Fecha fuera del rango del cubo: " + LocalDate.ofEpochDay(diaEpoch));
+        }
+        this.reservas[celda]++;
+        this.noches[celda] += dias;
+        this.personas[celda] += personas;
+        this.ingresos[celda] += costoCentavos;
+    }
+
+    /**
+     * Suma a este cubo todas las celdas de otro.
+     *
+     * @param otro el cubo a sumar
+     */
+    public void sumar(CuboIngresos otro) {
+        for (int i = 0; i < reservas.length; i++) {
+            reservas[i] += otro.reservas[i];
+            noches[i] += otro.noches[i];
+            personas[i] += otro.personas[i];
+            ingresos[i] += otro.ingresos[i];
+        }
+    }
+
+    /**
+     * Obtiene los ingresos en centavos de una celda.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param mes el mes (1 a 12)
+     * @param año el año
+     * @return los ingresos de la celda en centavos, o 0 si está fuera del rango del cubo
+     * @throws IllegalArgumentException si el mes no está entre 1 y 12
+     */
+    public long ingresosCentavos(int codigoTipo, int mes, int año) {
+        verificarMes(mes);
+        int celda = celda(codigoTipo, indiceMes(año, mes));
+        return celda < 0 ? 0 : ingresos[celda];
+    }
+
+    /**
+     * Suma las celdas de todos los tipos de habitación entre dos meses, ambos incluidos.
+     * Los meses fuera del rango del cubo no tienen reservas y se ignoran.
+     *
+     * @param mesDesde el mes inicial (1 a 12)
+     * @param añoDesde el año inicial
+     * @param mesHasta el mes final (1 a 12)
+     * @param añoHasta el año final
+     * @return el agregado por tipo de habitación del rango
+     * @throws IllegalArgumentException si alguno de los meses no está entre 1 y 12
+     */
+    public AgregadoReservas consultar(int mesDesde, int añoDesde, int mesHasta, int añoHasta) {
+        verificarMes(mesDesde);
+        verificarMes(mesHasta);
+        int desde = Math.max(0, indiceMesSinLimite(añoDesde, mesDesde));
+        int hasta = Math.min(MESES - 1, indiceMesSinLimite(añoHasta, mesHasta));
+        long[][] medidas = new long[4][tipos];
+        for (int tipo = 0; tipo < tipos; tipo++) {
+            int base = tipo * MESES;
+            for (int mes = desde; mes <= hasta; mes++) {
+                medidas[0][tipo] += reservas[base + mes];
+                medidas[1][tipo] += noches[base + mes];
+                medidas[2][tipo] += personas[base + mes];
+                medidas[3][tipo] += ingresos[base + mes];
+            }
+        }
+        return new AgregadoReservas(medidas[0], medidas[1], medidas[2], medidas[3]);
+    }
+
+    /**
+     * Comprueba que un mes está entre 1 y 12, para que un mes 13 no se cuente como
+     * enero del año siguiente.
+     *
+     * @param mes el mes a comprobar
+     * @throws IllegalArgumentException si el mes no está entre 1 y 12
+     */
+    static void verificarMes(int mes) {
+        if (mes < 1 || mes > 12) {
+            throw new IllegalArgumentException("Mes no válido: " + mes);
+        }
+    }
+
+    private int celda(int codigoTipo, int indiceMes) {
+        return indiceMes < 0 ? -1 : codigoTipo * MESES + indiceMes;
+    }
+
+    private static int indiceMes(int año, int mes) {
+        int indice = indiceMesSinLimite(año, mes);
+        return indice >= 0 && indice < MESES && mes >= 1 && mes <= 12 ? indice : -1;
+    }
+
+    private static int indiceMesSinLimite(int año, int mes) {
+        return (año - AÑO_INICIAL) * 12 + (mes - 1);
+    }
+}
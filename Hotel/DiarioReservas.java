@@ -0,0 +1,474 @@
+package Hotel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * La clase DiarioReservas es un diario de solo anexado para las reservas nuevas.
+ * En lugar de reescribir el archivo de reservas completo en cada alta, cada reserva
+ * se agrega al final del diario. Las escrituras de varios hilos se agrupan y se
+ * confirman en disco con un único fsync por grupo.
+ *
+ * Periódicamente el diario se compacta: se escribe una instantánea consolidada en
+ * el archivo de reservas y se vacía el diario. Al iniciar, {@link #recuperar} carga
+ * la instantánea y vuelve a aplicar el diario.
+ *
+ * La compactación se hace en estos pasos, de modo que un corte en cualquier punto
+ * se pueda recuperar sin perder ni duplicar reservas:
+ * <ol>
+ *     <li>se crea el archivo temporal de la instantánea y el diario actual se renombra
+ *     como diario anterior; las reservas nuevas van a un diario vacío;</li>
+ *     <li>se escribe la instantánea en el archivo temporal y se confirma en disco;</li>
+ *     <li>el archivo temporal reemplaza a la instantánea;</li>
+ *     <li>se borra el diario anterior.</li>
+ * </ol>
+ * Después de cada renombrado se confirma en disco el directorio, para que los pasos
+ * no puedan quedar persistidos en otro orden. Si una compactación falla a medias, el
+ * diario anterior y el temporal quedan en disco y no se vuelve a rotar hasta que
+ * {@link #recuperar} los consolide al reiniciar: rotar encima reemplazaría el diario
+ * anterior y perdería sus reservas.
+ */
+class DiarioReservas implements Closeable {
+    private static final String SUFIJO_DIARIO = ".diario";
+    private static final String SUFIJO_ANTERIOR = ".diario.anterior";
+    private static final String SUFIJO_TEMPORAL = ".tmp";
+
+    private final Path instantanea;
+    private final Path diario;
+    private final Path anterior;
+    private final Path temporal;
+    private final Object candado = new Object();
+    private final Object candadoCanal = new Object();
+    private final Thread escritor;
+    private FileChannel canal;
+    private Grupo grupoAbierto = new Grupo();
+    private boolean cerrado;
+    private boolean compactando;
+
+    /**
+     * Constructor de la clase DiarioReservas.
+     * Abre (o crea) el diario asociado al archivo de reservas e inicia el hilo que
+     * confirma en disco los grupos de reservas.
+     *
+     * @param archivo el nombre o ruta del archivo de reservas (la instantánea)
+     * @throws IOException si no se puede abrir el diario
+     */
+    public DiarioReservas(String archivo) throws IOException {
+        instantanea = Paths.get(archivo);
+        diario = Paths.get(archivo + SUFIJO_DIARIO);
+        anterior = Paths.get(archivo + SUFIJO_ANTERIOR);
+        temporal = Paths.get(archivo + SUFIJO_TEMPORAL);
+        canal = abrirDiario(diario);
+        escritor = new Thread(this::confirmarGrupos, "diario-reservas");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Agrega una reserva al final del diario y espera a que quede confirmada en disco.
+     * Si otras reservas se registran al mismo tiempo, todas se confirman con un único fsync.
+     *
+     * @param reserva la reserva a registrar
+     * @throws IOException si ocurre un error al escribir en el diario
+     */
+    public void registrar(Reserva reserva) throws IOException {
+        esperar(encolar(List.of(reserva)));
+    }
+
+    /**
+     * Agrega varias reservas al final del diario con una sola escritura y espera a que
+     * queden confirmadas en disco.
+     *
+     * @param reservas las reservas a registrar
+     * @throws IOException si ocurre un error al escribir en el diario
+     */
+    public void registrarTodas(List<Reserva> reservas) throws IOException {
+        if (!reservas.isEmpty()) {
+            esperar(encolar(reservas));
+        }
+    }
+
+    private CompletableFuture<Void> encolar(List<Reserva> reservas) throws IOException {
+        StringBuilder lineas = new StringBuilder(reservas.size() * 48);
+        for (Reserva reserva : reservas) {
+            lineas.append(reserva).append('\n');
+        }
+        byte[] bytes = lineas.toString().getBytes(StandardCharsets.UTF_8);
+        synchronized (candado) {
+            if (cerrado) {
+                throw new IOException("El diario de reservas está cerrado");
+            }
+            grupoAbierto.lineas.add(bytes);
+            grupoAbierto.tamaño += bytes.length;
+            candado.notifyAll();
+            return grupoAbierto.confirmado;
+        }
+    }
+
+    private static void esperar(CompletableFuture<Void> confirmado) throws IOException {
+        try {
+            confirmado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido esperando la escritura del diario", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error al escribir el diario de reservas", e.getCause());
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: toma el grupo abierto, lo escribe de una vez,
+     * lo confirma con un fsync y avisa a todos los hilos que esperaban por él.
+     * Mientras un grupo se escribe, las reservas nuevas se acumulan en el siguiente.
+     */
+    private void confirmarGrupos() {
+        while (true) {
+            Grupo grupo;
+            synchronized (candado) {
+                while (grupoAbierto.lineas.isEmpty() && !cerrado) {
+                    try {
+                        candado.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (grupoAbierto.lineas.isEmpty()) {
+                    return;
+                }
+                grupo = grupoAbierto;
+                grupoAbierto = new Grupo();
+            }
+            synchronized (candadoCanal) {
+                escribir(grupo);
+            }
+        }
+    }
+
+    private void escribir(Grupo grupo) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(grupo.tamaño);
+            for (byte[] linea : grupo.lineas) {
+                buffer.put(linea);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+            grupo.confirmado.complete(null);
+        } catch (IOException e) {
+            grupo.confirmado.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Compacta el diario escribiendo una instantánea con las reservas indicadas.
+     * La rotación del diario se hace en el hilo que llama; la escritura de la
+     * instantánea se hace en un hilo aparte, por lo que las reservas nuevas pueden
+     * seguir registrándose mientras tanto. Si ya hay una compactación en curso,
+     * la llamada no hace nada.
+     *
+     * La lista debe contener exactamente las reservas ya registradas en el diario
+     * (las de la instantánea actual más las anexadas desde entonces), por ejemplo las
+     * reservas del hotel cuando cada alta se agrega al hotel y se registra en el diario
+     * desde el mismo hilo que compacta. La lista no debe cambiar después de la llamada,
+     * como ocurre con la vista que devuelve {@link Hotel#obtenerReservasActivas()}.
+     *
+     * @param reservas las reservas que formarán la nueva instantánea
+     * @return una tarea que se completa cuando la instantánea queda escrita
+     * @throws IOException si ocurre un error al rotar el diario
+     */
+    public CompletableFuture<Void> compactarEnSegundoPlano(List<Reserva> reservas) throws IOException {
+        synchronized (candado) {
+            if (compactando) {
+                return CompletableFuture.completedFuture(null);
+            }
+            rotar();
+            compactando = true;
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                escribirInstantanea(reservas);
+            } catch (IOException e) {
+                System.err.println("No se pudo compactar el diario de reservas: " + e.getMessage());
+                throw new UncheckedIOException(e);
+            } finally {
+                synchronized (candado) {
+                    compactando = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Compacta el diario y espera a que la instantánea quede escrita.
+     *
+     * @param reservas las reservas que formarán la nueva instantánea
+     * @throws IOException si ocurre un error al rotar el diario o al escribir la instantánea
+     * @see #compactarEnSegundoPlano(List)
+     */
+    public void compactar(List<Reserva> reservas) throws IOException {
+        try {
+            compactarEnSegundoPlano(reservas).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido esperando la compactación", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error al compactar el diario de reservas", e.getCause());
+        }
+    }
+
+    /**
+     * Rota el diario. Se llama con el candado tomado; las reservas encoladas que
+     * todavía no se escribieron se escriben primero en el diario actual, ya que
+     * forman parte de la instantánea.
+     *
+     * @throws IOException si una compactación anterior quedó a medias, o si ocurre un
+     *                     error al renombrar el diario
+     */
+    private void rotar() throws IOException {
+        synchronized (candadoCanal) {
+            if (Files.exists(anterior)) {
+                if (Files.exists(temporal)) {
+                    // La instantánea anterior no llegó a reemplazarse: el diario anterior
+                    // tiene reservas que solo están en él
+                    throw new IOException("Una compactación anterior quedó a medias; el diario "
+                            + anterior + " se conserva hasta la próxima recuperación");
+                }
+                // La instantánea ya incluye el diario anterior; solo faltó borrarlo
+                Files.delete(anterior);
+                sincronizarDirectorio(anterior);
+            }
+            if (!grupoAbierto.lineas.isEmpty()) {
+                escribir(grupoAbierto);
+                grupoAbierto = new Grupo();
+            }
+            Files.deleteIfExists(temporal);
+            Files.createFile(temporal);
+            sincronizarDirectorio(temporal);
+            canal.close();
+            Files.move(diario, anterior, StandardCopyOption.ATOMIC_MOVE);
+            canal = abrirDiario(diario);
+            sincronizarDirectorio(diario);
+        }
+    }
+
+    private void escribirInstantanea(List<Reserva> reservas) throws IOException {
+        GestorArchivos.guardarReservas(reservas, temporal.toString());
+        try (FileChannel salida = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+            salida.force(true);
+        }
+        Files.move(temporal, instantanea, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        sincronizarDirectorio(instantanea);
+        Files.delete(anterior);
+        sincronizarDirectorio(anterior);
+    }
+
+    /**
+     * Confirma en disco las entradas del directorio que contiene un archivo, para que
+     * un renombrado o un borrado sobrevivan a un corte. En los sistemas que no permiten
+     * abrir un directorio, como Windows, no hace nada.
+     *
+     * @param archivo el archivo cuyo directorio se confirma
+     * @throws IOException si ocurre un error al confirmar el directorio
+     */
+    static void sincronizarDirectorio(Path archivo) throws IOException {
+        Path directorio = archivo.toAbsolutePath().getParent();
+        FileChannel canalDirectorio;
+        try {
+            canalDirectorio = FileChannel.open(directorio, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (FileChannel abierto = canalDirectorio) {
+            abierto.force(true);
+        }
+    }
+
+    /**
+     * Termina de confirmar las reservas pendientes y cierra el diario.
+     *
+     * @throws IOException si ocurre un error al cerrar el diario
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (candado) {
+            cerrado = true;
+            candado.notifyAll();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (candadoCanal) {
+            canal.close();
+        }
+    }
+
+    /**
+     * Carga la instantánea de reservas y vuelve a aplicar el diario, dejando los
+     * archivos en un estado consistente si una compactación anterior quedó a medias.
+     * Las líneas del diario que no terminan en salto de línea corresponden a una
+     * escritura interrumpida que nunca se confirmó y se descartan. Las reservas se
+     * agregan aunque superen el inventario del hotel y se cuentan en el resultado.
+     *
+     * @param archivo el nombre o ruta del archivo de reservas (la instantánea)
+     * @param hotel el hotel al que se agregarán las reservas
+     * @param hilos el número de hilos para cargar la instantánea
+     * @return el resultado de la carga de la instantánea y del diario
+     * @throws NoSuchFileException si no existen ni la instantánea ni el diario
+     * @throws IOException si ocurre un error al leer los archivos
+     */
+    public static ResultadoCarga recuperar(String archivo, Hotel hotel, int hilos) throws IOException {
+        return recuperar(archivo, hotel, hilos, null, 0);
+    }
+
+    /**
+     * Recupera las reservas como {@link #recuperar(String, Hotel, int)}, pero antes de
+     * agregarlas al hotel archiva en el histórico los meses anteriores a la ventana
+     * activa. Solo las reservas de la ventana quedan en el hotel; el histórico queda
+     * asociado al hotel para leer los meses archivados cuando se consulten. La
+     * instantánea sigue conteniendo las reservas archivadas hasta la próxima compactación.
+     *
+     * @param archivo el nombre o ruta del archivo de reservas (la instantánea)
+     * @param hotel el hotel al que se agregarán las reservas
+     * @param hilos el número de hilos para cargar la instantánea
+     * @param historico el histórico de meses archivados, o null para no archivar
+     * @param primerMesActivo el primer mes de la ventana activa, con el formato aaaamm
+     * @return el resultado de la carga de la instantánea y del diario
+     * @throws NoSuchFileException si no existen ni la instantánea ni el diario
+     * @throws IOException si ocurre un error al leer los archivos o al archivar
+     * @see HistoricoReservas#archivar(TablaReservas, int)
+     */
+    public static ResultadoCarga recuperar(String archivo, Hotel hotel, int hilos,
+                                           HistoricoReservas historico, int primerMesActivo) throws IOException {
+        long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.CARGAR_RESERVAS);
+        try {
+            return recuperarArchivos(archivo, hotel, hilos, historico, primerMesActivo);
+        } catch (IOException | RuntimeException e) {
+            MetricasHotel.registrarFallo(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+            throw e;
+        } finally {
+            MetricasHotel.registrar(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+        }
+    }
+
+    private static ResultadoCarga recuperarArchivos(String archivo, Hotel hotel, int hilos,
+                                                    HistoricoReservas historico, int primerMesActivo)
+            throws IOException {
+        long inicio = System.nanoTime();
+        Path instantanea = Paths.get(archivo);
+        Path diario = Paths.get(archivo + SUFIJO_DIARIO);
+        Path anterior = Paths.get(archivo + SUFIJO_ANTERIOR);
+        Path temporal = Paths.get(archivo + SUFIJO_TEMPORAL);
+
+        // Si el temporal existe, la instantánea todavía no se había reemplazado y el
+        // diario anterior sigue siendo necesario; si no existe, la instantánea ya lo incluye.
+        boolean aplicarAnterior = Files.exists(anterior) && Files.exists(temporal);
+        if (Files.exists(anterior) && !aplicarAnterior) {
+            Files.delete(anterior);
+            sincronizarDirectorio(anterior);
+        }
+        Files.deleteIfExists(temporal);
+
+        if (historico != null) {
+            hotel.usarHistorico(historico);
+        }
+        if (!Files.exists(instantanea) && !Files.exists(diario) && !aplicarAnterior) {
+            throw new NoSuchFileException(archivo, null, "No existe el archivo de reservas");
+        }
+        long descartadas = 0;
+        TablaReservas reservas;
+        if (Files.exists(instantanea)) {
+            GestorArchivos.LoteReservas lote = GestorArchivos.leerReservasParalelo(archivo, hilos);
+            reservas = lote.reservas;
+            descartadas += lote.descartadas;
+        } else {
+            reservas = new TablaReservas();
+        }
+        if (aplicarAnterior) {
+            descartadas += leerDiario(anterior, reservas);
+        }
+        if (Files.exists(diario)) {
+            descartadas += leerDiario(diario, reservas);
+        }
+        long filas = reservas.tamaño();
+        if (historico != null) {
+            reservas = historico.archivar(reservas, primerMesActivo);
+        }
+        long sobreocupadas = hotel.agregarTabla(reservas);
+
+        if (aplicarAnterior) {
+            // Se vuelve a dejar todo en un único diario para que la próxima compactación
+            // parta de un estado normal.
+            byte[] pendientes = Files.readAllBytes(anterior);
+            byte[] recientes = Files.exists(diario) ? Files.readAllBytes(diario) : new byte[0];
+            Path unido = Paths.get(archivo + SUFIJO_DIARIO + SUFIJO_TEMPORAL);
+            try (FileChannel salida = FileChannel.open(unido, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                salida.write(ByteBuffer.wrap(recortarLineaIncompleta(pendientes)));
+                salida.write(ByteBuffer.wrap(recientes));
+                salida.force(true);
+            }
+            Files.move(unido, diario, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            sincronizarDirectorio(diario);
+            Files.delete(anterior);
+            sincronizarDirectorio(anterior);
+        }
+        return new ResultadoCarga(filas, descartadas, sobreocupadas, System.nanoTime() - inicio);
+    }
+
+    private static long leerDiario(Path archivo, TablaReservas reservas) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(archivo));
+        long descartadas = 0;
+        int inicioLinea = 0;
+        for (int i = 0; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                if (!ParserReservas.parsearLinea(buffer, inicioLinea, i, reservas) && i > inicioLinea) {
+                    descartadas++;
+                }
+                inicioLinea = i + 1;
+            }
+        }
+        return descartadas;
+    }
+
+    private static byte[] recortarLineaIncompleta(byte[] bytes) {
+        int fin = bytes.length;
+        while (fin > 0 && bytes[fin - 1] != '\n') {
+            fin--;
+        }
+        return fin == bytes.length ? bytes : Arrays.copyOf(bytes, fin);
+    }
+
+    private static FileChannel abrirDiario(Path archivo) throws IOException {
+        return FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Grupo de reservas que se escriben y confirman en disco juntas.
+     */
+    private static class Grupo {
+        private final List<byte[]> lineas = new ArrayList<>();
+        private final CompletableFuture<Void> confirmado = new CompletableFuture<>();
+        private int tamaño;
+    }
+}
@@ -0,0 +1,261 @@
+package Hotel;
+
+import java.time.LocalDate;
+
+/**
+ * La clase Disponibilidad lleva la ocupación diaria de cada tipo de habitación y
+ * controla que no se reserven más habitaciones de las que tiene el hotel.
+ *
+ * Por cada tipo se mantiene un árbol de segmentos sobre los días desde la época
+ * (1970-01-01) que guarda, para cada rango de días, la ocupación máxima y la suma
+ * de noches ocupadas. El árbol solo cubre una ventana de días alrededor de las
+ * reservas sumadas y la duplica cuando llega una fuera de ella, de modo que un tipo
+ * con pocas reservas cercanas ocupa unos 16 KB. Sumar una reserva y consultar si
+ * un rango de fechas admite N habitaciones más cuestan O(log D), donde D es el
+ * número de días de la ventana.
+ * Las consultas no modifican el árbol, por lo que pueden hacerse desde varios hilos
+ * a la vez mientras nadie lo modifica.
+ */
+class Disponibilidad {
+    /**
+     * Inventario que se usa cuando no se indica uno: el tipo no tiene límite de habitaciones.
+     */
+    static final int SIN_LIMITE = Integer.MAX_VALUE;
+
+    private static final int BITS_DIAS = 16;
+    private static final int DIAS = 1 << BITS_DIAS;
+    private static final int DIAS_VENTANA_INICIAL = 512;
+
+    private final int[] inventario;
+    private final Arbol[] arboles;
+
+    /**
+     * Constructor de la clase Disponibilidad.
+     *
+     * @param inventario el número de habitaciones de cada tipo, indexado por código de tipo;
+     *                   {@link #SIN_LIMITE} si el tipo no tiene límite
+     */
+    public Disponibilidad(int[] inventario) {
+        this.inventario = inventario.clone();
+        this.arboles = new Arbol[inventario.length];
+    }
+
+    /**
+     * Obtiene el número de habitaciones de un tipo.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @return el número de habitaciones, o {@link #SIN_LIMITE} si el tipo no tiene límite
+     */
+    public int inventario(int codigoTipo) {
+        return inventario[codigoTipo];
+    }
+
+    /**
+     * Indica si quedan al menos N habitaciones libres de un tipo en todas las noches
+     * de un rango de fechas.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param diaInicio la primera noche, como día desde la época
+     * @param dias el número de noches
+     * @param habitaciones el número de habitaciones que se quieren reservar
+     * @return true si hay disponibilidad en todas las noches del rango
+     */
+    public boolean hayDisponibilidad(int codigoTipo, int diaInicio, int dias, int habitaciones) {
+        verificarRango(diaInicio, dias);
+        if (dias == 0 || inventario[codigoTipo] == SIN_LIMITE) {
+            return true;
+        }
+        return ocupacionMaxima(codigoTipo, diaInicio, diaInicio + dias) + (long) habitaciones
+                <= inventario[codigoTipo];
+    }
+
+    /**
+     * Obtiene la mayor cantidad de habitaciones de un tipo ocupadas en una misma noche
+     * dentro de un rango de días.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param desde el primer día del rango, como día desde la época
+     * @param hasta el día siguiente al último del rango
+     * @return la ocupación máxima del rango
+     */
+    public int ocupacionMaxima(int codigoTipo, int desde, int hasta) {
+        Arbol arbol = arboles[codigoTipo];
+        if (arbol == null || desde >= hasta) {
+            return 0;
+        }
+        return arbol.maximo(desde, hasta);
+    }
+
+    /**
+     * Suma las noches ocupadas de un tipo de habitación en un rango de días.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param desde el primer día del rango, como día desde la época
+     * @param hasta el día siguiente al último del rango
+     * @return el número de noches-habitación ocupadas en el rango
+     */
+    public long nochesOcupadas(int codigoTipo, int desde, int hasta) {
+        Arbol arbol = arboles[codigoTipo];
+        if (arbol == null || desde >= hasta) {
+            return 0;
+        }
+        return arbol.suma(desde, hasta);
+    }
+
+    /**
+     * Suma (o resta, si la cantidad es negativa) habitaciones ocupadas en todas las
+     * noches de un rango, sin comprobar el inventario.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param diaInicio la primera noche, como día desde la época
+     * @param dias el número de noches
+     * @param habitaciones el número de habitaciones a sumar
+     */
+    public void ocupar(int codigoTipo, int diaInicio, int dias, int habitaciones) {
+        verificarRango(diaInicio, dias);
+        if (dias == 0) {
+            return;
+        }
+        if (arboles[codigoTipo] == null) {
+            arboles[codigoTipo] = new Arbol(diaInicio);
+        }
+        arboles[codigoTipo].sumar(diaInicio, diaInicio + dias, habitaciones);
+    }
+
+    /**
+     * Indica si una estadía cae dentro de los días que puede representar el árbol.
+     *
+     * @param diaInicio la primera noche, como día desde la época
+     * @param dias el número de noches
+     * @return true si la estadía empieza en 1970 o después y termina antes del último día
+     */
+    static boolean enRango(long diaInicio, int dias) {
+        return dias >= 0 && diaInicio >= 0 && diaInicio + dias <= DIAS;
+    }
+
+    /**
+     * Comprueba que una estadía cae dentro de los días que puede representar el árbol.
+     *
+     * @throws IllegalArgumentException si la estadía empieza antes de 1970 o termina después del último día
+     */
+    static void verificarRango(int diaInicio, int dias) {
+        if (!enRango(diaInicio, dias)) {
+            throw new IllegalArgumentException("Estadía fuera del rango de fechas admitido: "
+                    + LocalDate.ofEpochDay(diaInicio) + " por " + dias + " días");
+        }
+    }
+
+    /**
+     * Árbol de segmentos con actualización por rangos sobre una ventana de días
+     * alineada a su ancho, que siempre es una potencia de dos. El valor pendiente de
+     * cada nodo se aplica a todo su rango y no se empuja a los hijos, de modo que las
+     * consultas solo leen el árbol. Los días fuera de la ventana no tienen ocupación.
+     */
+    private static class Arbol {
+        private int base;
+        private int ancho;
+        private int[] maximo;
+        private long[] suma;
+        private int[] pendiente;
+
+        Arbol(int dia) {
+            ancho = DIAS_VENTANA_INICIAL;
+            base = dia & -ancho;
+            maximo = new int[2 * ancho];
+            suma = new long[2 * ancho];
+            pendiente = new int[2 * ancho];
+        }
+
+        void sumar(int desde, int hasta, int valor) {
+            while (desde < base || hasta > base + ancho) {
+                duplicar();
+            }
+            sumar(1, base, base + ancho, desde, hasta, valor);
+        }
+
+        int maximo(int desde, int hasta) {
+            int primero = Math.max(desde, base);
+            int ultimo = Math.min(hasta, base + ancho);
+            int resultado = primero < ultimo ? maximo(1, base, base + ancho, primero, ultimo) : 0;
+            // Los días que quedan fuera de la ventana están libres
+            return primero == desde && ultimo == hasta ? resultado : Math.max(resultado, 0);
+        }
+
+        long suma(int desde, int hasta) {
+            int primero = Math.max(desde, base);
+            int ultimo = Math.min(hasta, base + ancho);
+            return primero < ultimo ? suma(1, base, base + ancho, primero, ultimo) : 0;
+        }
+
+        /**
+         * Duplica la ventana: el árbol actual pasa a ser el hijo izquierdo o derecho de
+         * una raíz nueva, según la alineación de su base, y el otro hijo queda vacío.
+         */
+        private void duplicar() {
+            int nuevoAncho = 2 * ancho;
+            int nuevaBase = base & -nuevoAncho;
+            int[] nuevoMaximo = new int[2 * nuevoAncho];
+            long[] nuevaSuma = new long[2 * nuevoAncho];
+            int[] nuevoPendiente = new int[2 * nuevoAncho];
+            // El nodo k del nivel n pasa a k + 2^n si queda a la izquierda y a k + 2^(n+1) si queda a la derecha
+            boolean derecha = nuevaBase != base;
+            for (int nivel = 1; nivel <= ancho; nivel <<= 1) {
+                int desplazamiento = derecha ? 2 * nivel : nivel;
+                System.arraycopy(maximo, nivel, nuevoMaximo, nivel + desplazamiento, nivel);
+                System.arraycopy(suma, nivel, nuevaSuma, nivel + desplazamiento, nivel);
+                System.arraycopy(pendiente, nivel, nuevoPendiente, nivel + desplazamiento, nivel);
+            }
+            nuevoMaximo[1] = Math.max(maximo[1], 0);
+            nuevaSuma[1] = suma[1];
+            base = nuevaBase;
+            ancho = nuevoAncho;
+            maximo = nuevoMaximo;
+            suma = nuevaSuma;
+            pendiente = nuevoPendiente;
+        }
+
+        private void sumar(int nodo, int inicio, int fin, int desde, int hasta, int valor) {
+            if (hasta <= inicio || fin <= desde) {
+                return;
+            }
+            if (desde <= inicio && fin <= hasta) {
+                pendiente[nodo] += valor;
+                maximo[nodo] += valor;
+                suma[nodo] += (long) valor * (fin - inicio);
+                return;
+            }
+            int medio = (inicio + fin) >>> 1;
+            sumar(2 * nodo, inicio, medio, desde, hasta, valor);
+            sumar(2 * nodo + 1, medio, fin, desde, hasta, valor);
+            maximo[nodo] = Math.max(maximo[2 * nodo], maximo[2 * nodo + 1]) + pendiente[nodo];
+            suma[nodo] = suma[2 * nodo] + suma[2 * nodo + 1] + (long) pendiente[nodo] * (fin - inicio);
+        }
+
+        private int maximo(int nodo, int inicio, int fin, int desde, int hasta) {
+            if (hasta <= inicio || fin <= desde) {
+                return Integer.MIN_VALUE;
+            }
+            if (desde <= inicio && fin <= hasta) {
+                return maximo[nodo];
+            }
+            int medio = (inicio + fin) >>> 1;
+            int hijos = Math.max(maximo(2 * nodo, inicio, medio, desde, hasta),
+                    maximo(2 * nodo + 1, medio, fin, desde, hasta));
+            return hijos + pendiente[nodo];
+        }
+
+        private long suma(int nodo, int inicio, int fin, int desde, int hasta) {
+            if (hasta <= inicio || fin <= desde) {
+                return 0;
+            }
+            if (desde <= inicio && fin <= hasta) {
+                return suma[nodo];
+            }
+            int medio = (inicio + fin) >>> 1;
+            long solapados = Math.min(fin, hasta) - Math.max(inicio, desde);
+            return suma(2 * nodo, inicio, medio, desde, hasta)
+                    + suma(2 * nodo + 1, medio, fin, desde, hasta)
+                    + pendiente[nodo] * solapados;
+        }
+    }
+}
@@ -1,41 +1,59 @@
-package Hotel;
-
-// src/EstadisticasHotel.java
-import java.util.List;
-
-/**
- * La clase EstadisticasHotel contiene métodos para calcular estadísticas
- * sobre la ocupación del hotel, como el porcentaje de ocupación y el
- * número de habitaciones ocupadas por tipo.
- */
-class EstadisticasHotel {
-
-    /**
-     * Calcula el porcentaje de ocupación del hotel.
-     *
-     * @param totalHabitaciones el total de habitaciones en el hotel
-     * @param habitacionesOcupadas el número de habitaciones ocupadas actualmente
-     * @return el porcentaje de ocupación del hotel
-     */
-    public static double calcularPorcentajeOcupacion(int totalHabitaciones, int habitacionesOcupadas) {
-        return ((double) habitacionesOcupadas / totalHabitaciones) * 100;
-    }
-
-    /**
-     * Muestra las estadísticas de ocupación por tipo de habitación.
-     *
-     * Este método cuenta cuántas habitaciones de cada tipo están ocupadas
-     * (Estandar, Ejecutiva y Suite Presidencial) y muestra el resultado en consola.
-     *
-     * @param reservas una lista de reservas que contiene la información de las habitaciones ocupadas
-     */
-    public static void mostrarEstadisticas(List<Reserva> reservas) {
-        long estandar = reservas.stream().filter(r -> r.getTipoHabitacion().equals("Estandar")).count();
-        long ejecutiva = reservas.stream().filter(r -> r.getTipoHabitacion().equals("Ejecutiva")).count();
-        long suite = reservas.stream().filter(r -> r.getTipoHabitacion().equals("Suite Presidencial")).count();
-
-        System.out.println("Habitaciones Estandar ocupadas: " + estandar);
-        System.out.println("Habitaciones Ejecutiva ocupadas: " + ejecutiva);
-        System.out.println("Suites Presidenciales ocupadas: " + suite);
-    }
-}
+package Hotel;
+
+// src/EstadisticasHotel.java
+import java.time.LocalDate;
+
+/**
+ * La clase EstadisticasHotel contiene métodos para calcular estadísticas
+ * sobre el hotel y la cadena, como la ocupación por tipo de habitación en un
+ * rango de fechas y los ingresos por tipo en un rango de meses.
+ */
+class EstadisticasHotel {
+
+    /**
+     * Calcula la ocupación real del hotel por tipo de habitación entre dos fechas,
+     * ambas incluidas: las noches-habitación ocupadas por las reservas que se solapan
+     * con el rango, las que ofrece el inventario y el porcentaje de ocupación.
+     * El cálculo usa los contadores diarios del hotel y no recorre las reservas,
+     * por lo que puede consultarse con frecuencia.
+     *
+     * @param hotel el hotel a consultar
+     * @param desde la primera noche del rango
+     * @param hasta la última noche del rango
+     * @return la ocupación por tipo de habitación en el rango
+     */
+    public static OcupacionHotel calcularOcupacion(Hotel hotel, LocalDate desde, LocalDate hasta) {
+        return hotel.calcularOcupacion(desde, hasta);
+    }
+
+    /**
+     * Calcula la ocupación de toda una cadena por tipo de habitación entre dos fechas,
+     * ambas incluidas, combinando la de cada uno de sus hoteles.
+     *
+     * @param cadena la cadena a consultar
+     * @param desde la primera noche del rango
+     * @param hasta la última noche del rango
+     * @return la ocupación de la cadena por tipo de habitación en el rango
+     * @see CadenaHoteles#calcularOcupacion(LocalDate, LocalDate)
+     */
+    public static OcupacionHotel calcularOcupacion(CadenaHoteles cadena, LocalDate desde, LocalDate hasta) {
+        return cadena.calcularOcupacion(desde, hasta);
+    }
+
+    /**
+     * Calcula los ingresos de toda una cadena por tipo de habitación entre dos meses,
+     * ambos incluidos, combinando los de cada uno de sus hoteles.
+     *
+     * @param cadena la cadena a consultar
+     * @param mesDesde el mes inicial del rango (1 a 12)
+     * @param añoDesde el año inicial del rango
+     * @param mesHasta el mes final del rango (1 a 12)
+     * @param añoHasta el año final del rango
+     * @return los ingresos de la cadena por tipo de habitación en el rango
+     * @see CadenaHoteles#consultarAgregado(int, int, int, int)
+     */
+    public static IngresosPorTipo calcularIngresosPorTipo(CadenaHoteles cadena, int mesDesde, int añoDesde,
+                                                          int mesHasta, int añoHasta) {
+        return cadena.consultarAgregado(mesDesde, añoDesde, mesHasta, añoHasta).getIngresosPorTipo();
+    }
+}
@@ -0,0 +1,56 @@
+package Hotel;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * La clase GeneradorReservas genera reservas sintéticas reproducibles para pruebas
+ * de rendimiento. Con la misma semilla siempre produce las mismas reservas, en el
+ * mismo orden.
+ */
+class GeneradorReservas {
+    private static final int PRIMER_DIA = (int) LocalDate.of(2015, 1, 1).toEpochDay();
+    private static final int DIAS_HISTORIAL = 10 * 365;
+
+    private final SplittableRandom aleatorio;
+
+    /**
+     * Constructor de la clase GeneradorReservas.
+     *
+     * @param semilla la semilla que determina la secuencia de reservas
+     */
+    public GeneradorReservas(long semilla) {
+        aleatorio = new SplittableRandom(semilla);
+    }
+
+    /**
+     * Genera una tabla de reservas repartidas entre todos los tipos de habitación,
+     * con fechas de inicio entre 2015 y 2024, de 1 a 14 días y de 1 a 4 personas.
+     *
+     * @param cantidad el número de reservas a generar
+     * @return una tabla con las reservas generadas
+     */
+    public TablaReservas generar(int cantidad) {
+        TablaReservas tabla = new TablaReservas(cantidad);
+        int tipos = RegistroTiposHabitacion.cantidad();
+        for (int i = 0; i < cantidad; i++) {
+            tabla.agregar(aleatorio.nextInt(tipos),
+                    PRIMER_DIA + aleatorio.nextInt(DIAS_HISTORIAL),
+                    1 + aleatorio.nextInt(14),
+                    1 + aleatorio.nextInt(4));
+        }
+        return tabla;
+    }
+
+    /**
+     * Genera un hotel sin límite de habitaciones con reservas sintéticas.
+     *
+     * @param cantidad el número de reservas a generar
+     * @return un hotel con las reservas generadas
+     */
+    public Hotel generarHotel(int cantidad) {
+        Hotel hotel = new Hotel();
+        hotel.agregarTabla(generar(cantidad));
+        return hotel;
+    }
+}
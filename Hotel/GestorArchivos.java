@@ -1,69 +1,457 @@
-package Hotel;
-
-import java.io.*;
-import java.time.LocalDate;
-import java.util.List;
-
-/**
- * La clase GestorArchivos permite guardar y cargar reservas de un archivo.
- * Facilita el manejo de archivos para almacenar la información de las reservas.
- */
-class GestorArchivos {
-
-    /**
-     * Guarda la lista de reservas en un archivo.
-     *
-     * @param reservas la lista de reservas a guardar
-     * @param archivo el nombre o ruta del archivo donde se guardarán las reservas
-     * @throws IOException si ocurre un error al escribir en el archivo
-     */
-    public static void guardarReservas(List<Reserva> reservas, String archivo) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(archivo))) {
-            for (Reserva reserva : reservas) {
-                writer.write(reserva.toString());
-                writer.newLine();
-            }
-        }
-    }
-
-    /**
-     * Carga las reservas desde un archivo y las agrega al hotel.
-     * Lee cada línea del archivo, crea las reservas basándose en la información leída,
-     * y las agrega a la lista de reservas activas del hotel.
-     *
-     * @param archivo el nombre o ruta del archivo desde el cual se cargarán las reservas
-     * @param hotel el hotel al que se agregarán las reservas cargadas
-     * @return la lista de reservas activas del hotel después de cargar los datos
-     * @throws IOException si ocurre un error al leer el archivo
-     */
-    public static List<Reserva> cargarReservas(String archivo, Hotel hotel) throws IOException {
-        List<Reserva> reservas = hotel.obtenerReservasActivas();
-        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            while ((linea = reader.readLine()) != null) {
-                String[] partes = linea.split(",");
-                String tipo = partes[0];
-                LocalDate fechaInicio = LocalDate.parse(partes[1]);
-                int dias = Integer.parseInt(partes[2]);
-                int personas = Integer.parseInt(partes[3]);
-
-                Habitacion habitacion;
-                switch (tipo) {
-                    case "Estandar":
-                        habitacion = new HabitacionEstandar();
-                        break;
-                    case "Ejecutiva":
-                        habitacion = new HabitacionEjecutiva();
-                        break;
-                    case "Suite Presidencial":
-                        habitacion = new SuitePresidencial();
-                        break;
-                    default:
-                        continue;
-                }
-                reservas.add(new Reserva(habitacion, fechaInicio, dias, personas));
-            }
-        }
-        return reservas;
-    }
-}
+package Hotel;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * La clase GestorArchivos permite guardar y cargar reservas de un archivo.
+ * Facilita el manejo de archivos para almacenar la información de las reservas.
+ */
+class GestorArchivos {
+    private static final int TAMAÑO_BLOQUE = 1 << 20;
+    private static final long TAMAÑO_MAXIMO_RANGO = 1L << 30;
+    private static final int RANGOS_POR_HILO = 4;
+
+    /**
+     * Guarda la lista de reservas en un archivo.
+     *
+     * @param reservas la lista de reservas a guardar
+     * @param archivo el nombre o ruta del archivo donde se guardarán las reservas
+     * @throws IOException si ocurre un error al escribir en el archivo
+     */
+    public static void guardarReservas(List<Reserva> reservas, String archivo) throws IOException {
+        long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.GUARDAR_RESERVAS);
+        try {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(archivo))) {
+                for (Reserva reserva : reservas) {
+                    writer.write(reserva.toString());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            MetricasHotel.registrarFallo(MetricasHotel.Operacion.GUARDAR_RESERVAS, medicion);
+            throw e;
+        } finally {
+            MetricasHotel.registrar(MetricasHotel.Operacion.GUARDAR_RESERVAS, medicion);
+        }
+    }
+
+    /**
+     * Obtiene la ruta del archivo de reservas de un mes dentro de un directorio
+     * particionado por meses, por ejemplo {@code reservas/2024-03.csv}.
+     *
+     * @param directorio el directorio de las particiones
+     * @param año el año del mes
+     * @param mes el mes (1-12)
+     * @return la ruta del archivo del mes
+     */
+    public static String archivoDeMes(String directorio, int año, int mes) {
+        return Paths.get(directorio, String.format("%04d-%02d.csv", año, mes)).toString();
+    }
+
+    /**
+     * Guarda las reservas de una partición en su archivo de una sola vez: se escriben
+     * en un temporal, se confirman en disco y el temporal reemplaza al archivo, por lo
+     * que el archivo nunca queda a medio escribir. El renombrado también se confirma en
+     * disco antes de volver, ya que quien llama puede quitar después esas reservas de la
+     * instantánea.
+     *
+     * @param reservas las reservas de la partición
+     * @param archivo el nombre o ruta del archivo de la partición
+     * @throws IOException si ocurre un error al escribir el archivo
+     */
+    public static void guardarParticion(List<Reserva> reservas, String archivo) throws IOException {
+        Path destino = Paths.get(archivo);
+        Path temporal = Paths.get(archivo + ".tmp");
+        guardarReservas(reservas, temporal.toString());
+        try (FileChannel salida = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+            salida.force(true);
+        }
+        Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        DiarioReservas.sincronizarDirectorio(destino);
+    }
+
+    /**
+     * Carga las reservas desde un archivo y las agrega al hotel.
+     * Lee cada línea del archivo, crea las reservas basándose en la información leída,
+     * y las agrega al hotel para que queden registradas también en sus índices.
+     *
+     * @param archivo el nombre o ruta del archivo desde el cual se cargarán las reservas
+     * @param hotel el hotel al que se agregarán las reservas cargadas
+     * @return la lista de reservas activas del hotel después de cargar los datos
+     * @throws IOException si ocurre un error al leer el archivo
+     */
+    public static List<Reserva> cargarReservas(String archivo, Hotel hotel) throws IOException {
+        long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.CARGAR_RESERVAS);
+        try {
+            try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
+                String linea;
+                while ((linea = reader.readLine()) != null) {
+                    String[] partes = linea.split(",");
+                    String tipo = partes[0];
+                    int diaInicio = Calendario.parsear(partes[1]);
+                    int dias = Integer.parseInt(partes[2]);
+                    int personas = Integer.parseInt(partes[3]);
+
+                    Habitacion habitacion = RegistroTiposHabitacion.porTipo(tipo);
+                    if (habitacion == null) {
+                        continue;
+                    }
+                    hotel.agregarReserva(new Reserva(habitacion, diaInicio, dias, personas));
+                }
+            }
+            return hotel.obtenerReservasActivas();
+        } catch (IOException | RuntimeException e) {
+            MetricasHotel.registrarFallo(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+            throw e;
+        } finally {
+            MetricasHotel.registrar(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+        }
+    }
+
+    /**
+     * Carga las reservas desde un archivo leyéndolo por bloques con un FileChannel.
+     * Cada línea se interpreta directamente sobre los bytes leídos con ParserReservas,
+     * sin dividir cadenas ni usar expresiones regulares, y se guarda como columnas
+     * en una tabla que al final se agrega al hotel, sin crear un objeto por reserva.
+     * Las líneas vacías, mal formadas, de tipo desconocido o con una reserva no válida se
+     * descartan y se cuentan en el resultado, sin interrumpir la carga.
+     *
+     * @param archivo el nombre o ruta del archivo desde el cual se cargarán las reservas
+     * @param hotel el hotel al que se agregarán las reservas cargadas
+     * @return el resultado de la carga, con el número de filas y su rendimiento
+     * @throws IOException si ocurre un error al leer el archivo o una línea no cabe en un bloque
+     */
+    public static ResultadoCarga cargarReservasRapido(String archivo, Hotel hotel) throws IOException {
+        long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.CARGAR_RESERVAS);
+        try {
+            long inicio = System.nanoTime();
+            long filas = 0;
+            long descartadas = 0;
+            TablaReservas lote = new TablaReservas();
+            try (FileChannel canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(TAMAÑO_BLOQUE);
+                boolean fin = false;
+                while (!fin) {
+                    fin = canal.read(buffer) < 0;
+                    buffer.flip();
+                    int limite = buffer.limit();
+                    int inicioLinea = 0;
+                    for (int i = 0; i < limite; i++) {
+                        if (buffer.get(i) == '\n') {
+                            if (ParserReservas.parsearLinea(buffer, inicioLinea, i, lote)) {
+                                filas++;
+                            } else if (i > inicioLinea) {
+                                descartadas++;
+                            }
+                            inicioLinea = i + 1;
+                        }
+                    }
+                    if (fin && inicioLinea < limite) {
+                        if (ParserReservas.parsearLinea(buffer, inicioLinea, limite, lote)) {
+                            filas++;
+                        } else {
+                            descartadas++;
+                        }
+                    } else if (!fin && inicioLinea == 0 && limite == buffer.capacity()) {
+                        throw new IOException("Línea demasiado larga en " + archivo);
+                    }
+                    buffer.position(inicioLinea);
+                    buffer.compact();
+                }
+            }
+            long sobreocupadas = hotel.agregarTabla(lote);
+            return new ResultadoCarga(filas, descartadas, sobreocupadas, System.nanoTime() - inicio);
+        } catch (IOException | RuntimeException e) {
+            MetricasHotel.registrarFallo(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+            throw e;
+        } finally {
+            MetricasHotel.registrar(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+        }
+    }
+
+    /**
+     * Carga las reservas desde un archivo usando varios hilos.
+     * El archivo se divide en rangos que empiezan y terminan en un salto de línea;
+     * cada rango se proyecta en memoria y se interpreta en un ForkJoinPool generando
+     * su propio lote de reservas. Al terminar, los lotes se unen en el orden del
+     * archivo y se agregan al hotel en un solo paso, por lo que el resultado es el
+     * mismo que el de una carga secuencial.
+     *
+     * @param archivo el nombre o ruta del archivo desde el cual se cargarán las reservas
+     * @param hotel el hotel al que se agregarán las reservas cargadas
+     * @param hilos el número de hilos a utilizar
+     * @return el resultado de la carga, con el número de filas y su rendimiento
+     * @throws IOException si ocurre un error al leer el archivo
+     */
+    public static ResultadoCarga cargarReservasParalelo(String archivo, Hotel hotel, int hilos) throws IOException {
+        long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.CARGAR_RESERVAS);
+        try {
+            long inicio = System.nanoTime();
+            LoteReservas lote = leerReservasParalelo(archivo, hilos);
+            long sobreocupadas = hotel.agregarTabla(lote.reservas);
+            return new ResultadoCarga(lote.reservas.tamaño(), lote.descartadas, sobreocupadas,
+                    System.nanoTime() - inicio);
+        } catch (IOException | RuntimeException e) {
+            MetricasHotel.registrarFallo(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+            throw e;
+        } finally {
+            MetricasHotel.registrar(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+        }
+    }
+
+    /**
+     * Lee un archivo de reservas con varios hilos, como {@link #cargarReservasParalelo},
+     * pero sin agregarlas a ningún hotel.
+     *
+     * @param archivo el nombre o ruta del archivo desde el cual se leerán las reservas
+     * @param hilos el número de hilos a utilizar
+     * @return las reservas leídas, en el orden del archivo, y el número de líneas descartadas
+     * @throws IOException si ocurre un error al leer el archivo
+     */
+    static LoteReservas leerReservasParalelo(String archivo, int hilos) throws IOException {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo: " + hilos);
+        }
+        try (FileChannel canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+            long[] cortes = calcularCortes(canal, hilos * RANGOS_POR_HILO);
+
+            List<Callable<LoteReservas>> tareas = new ArrayList<>();
+            for (int i = 0; i + 1 < cortes.length; i++) {
+                long desde = cortes[i];
+                long hasta = cortes[i + 1];
+                tareas.add(() -> parsearRango(canal, desde, hasta));
+            }
+
+            List<LoteReservas> lotes = new ArrayList<>();
+            ForkJoinPool pool = new ForkJoinPool(hilos);
+            try {
+                for (Future<LoteReservas> futuro : pool.invokeAll(tareas)) {
+                    lotes.add(futuro.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Carga interrumpida", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Error al cargar " + archivo, e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+
+            int total = 0;
+            long descartadas = 0;
+            for (LoteReservas lote : lotes) {
+                total += lote.reservas.tamaño();
+                descartadas += lote.descartadas;
+            }
+            LoteReservas unido = new LoteReservas(total);
+            for (LoteReservas lote : lotes) {
+                unido.reservas.agregarTodas(lote.reservas);
+            }
+            unido.descartadas = descartadas;
+            return unido;
+        }
+    }
+
+    /**
+     * Lee todas las reservas de un archivo sin agregarlas a ningún hotel, por ejemplo
+     * para importarlas como un lote con {@link Hotel#agregarReservas(Collection)}.
+     * A diferencia de las cargas, no descarta líneas: si alguna está mal formada o es
+     * de un tipo desconocido, no devuelve ninguna reserva.
+     *
+     * @param archivo el nombre o ruta del archivo con las reservas
+     * @return las reservas leídas, en el orden del archivo
+     * @throws IOException si ocurre un error al leer el archivo o alguna línea no es válida
+     */
+    public static VistaReservas leerReservas(String archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+            long[] cortes = calcularCortes(canal, 1);
+            TablaReservas reservas = new TablaReservas();
+            long descartadas = 0;
+            for (int i = 0; i + 1 < cortes.length; i++) {
+                LoteReservas lote = parsearRango(canal, cortes[i], cortes[i + 1]);
+                reservas.agregarTodas(lote.reservas);
+                descartadas += lote.descartadas;
+            }
+            if (descartadas > 0) {
+                throw new IOException(descartadas + " líneas no válidas en " + archivo);
+            }
+            return reservas.vista();
+        }
+    }
+
+    /**
+     * Divide el archivo en rangos de tamaño parecido, desplazando cada corte hasta
+     * el comienzo de la línea siguiente para que ninguna línea quede partida.
+     *
+     * @return las posiciones de los cortes, empezando en 0 y terminando en el tamaño del archivo
+     */
+    private static long[] calcularCortes(FileChannel canal, int rangos) throws IOException {
+        long tamaño = canal.size();
+        long minimoRangos = (tamaño + TAMAÑO_MAXIMO_RANGO - 1) / TAMAÑO_MAXIMO_RANGO;
+        int cantidad = (int) Math.max(1, Math.min(Math.max(rangos, minimoRangos), Math.max(1, tamaño)));
+        long[] cortes = new long[cantidad + 1];
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int i = 1; i < cantidad; i++) {
+            long posicion = Math.max(cortes[i - 1], tamaño / cantidad * i);
+            cortes[i] = inicioDeLineaSiguiente(canal, posicion, buffer);
+        }
+        cortes[cantidad] = tamaño;
+        return cortes;
+    }
+
+    private static long inicioDeLineaSiguiente(FileChannel canal, long posicion, ByteBuffer buffer) throws IOException {
+        if (posicion == 0) {
+            return 0;
+        }
+        long actual = posicion - 1;
+        while (true) {
+            buffer.clear();
+            int leidos = canal.read(buffer, actual);
+            if (leidos <= 0) {
+                return canal.size();
+            }
+            for (int i = 0; i < leidos; i++) {
+                if (buffer.get(i) == '\n') {
+                    return actual + i + 1;
+                }
+            }
+            actual += leidos;
+        }
+    }
+
+    private static LoteReservas parsearRango(FileChannel canal, long desde, long hasta) throws IOException {
+        LoteReservas lote = new LoteReservas();
+        if (hasta <= desde) {
+            return lote;
+        }
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, desde, hasta - desde);
+        int limite = buffer.limit();
+        int inicioLinea = 0;
+        for (int i = 0; i <= limite; i++) {
+            if (i == limite || buffer.get(i) == '\n') {
+                if (i > inicioLinea) {
+                    if (!ParserReservas.parsearLinea(buffer, inicioLinea, i, lote.reservas)) {
+                        lote.descartadas++;
+                    }
+                }
+                inicioLinea = i + 1;
+            }
+        }
+        return lote;
+    }
+
+    /**
+     * Reservas interpretadas a partir de un archivo o de un rango del archivo, con el
+     * número de líneas descartadas por estar mal formadas.
+     */
+    static class LoteReservas {
+        final TablaReservas reservas;
+        long descartadas;
+
+        LoteReservas() {
+            reservas = new TablaReservas();
+        }
+
+        LoteReservas(int capacidad) {
+            reservas = new TablaReservas(capacidad);
+        }
+    }
+
+    /**
+     * Guarda la lista de reservas en un archivo binario por columnas.
+     *
+     * @param reservas la lista de reservas a guardar
+     * @param archivo el nombre o ruta del archivo binario
+     * @throws IOException si ocurre un error al escribir en el archivo
+     * @see InstantaneaBinaria
+     */
+    public static void guardarReservasBinario(List<Reserva> reservas, String archivo) throws IOException {
+        InstantaneaBinaria.guardar(reservas, archivo);
+    }
+
+    /**
+     * Carga las reservas desde un archivo binario por columnas y las agrega al hotel.
+     * El archivo se proyecta en memoria y sus columnas se copian a la tabla del hotel
+     * sin interpretar texto ni construir un objeto por reserva. Las filas de un tipo
+     * desconocido o con una reserva no válida se descartan.
+     *
+     * @param archivo el nombre o ruta del archivo binario
+     * @param hotel el hotel al que se agregarán las reservas cargadas
+     * @return el resultado de la carga, con el número de filas y su rendimiento
+     * @throws IOException si ocurre un error al leer el archivo o su formato no es válido
+     */
+    public static ResultadoCarga cargarReservasBinario(String archivo, Hotel hotel) throws IOException {
+        long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.CARGAR_RESERVAS);
+        try {
+            long inicio = System.nanoTime();
+            InstantaneaBinaria instantanea = InstantaneaBinaria.abrir(archivo);
+            TablaReservas reservas = new TablaReservas(instantanea.tamaño());
+            long descartadas = 0;
+            for (int i = 0; i < instantanea.tamaño(); i++) {
+                if (RegistroTiposHabitacion.porCodigo(instantanea.codigoTipo(i)) != null && ParserReservas.esValida(
+                        instantanea.diaEpoch(i), instantanea.dias(i), instantanea.personas(i))) {
+                    reservas.agregar(instantanea.codigoTipo(i), instantanea.diaEpoch(i),
+                            instantanea.dias(i), instantanea.personas(i));
+                } else {
+                    descartadas++;
+                }
+            }
+            long sobreocupadas = hotel.agregarTabla(reservas);
+            return new ResultadoCarga(reservas.tamaño(), descartadas, sobreocupadas, System.nanoTime() - inicio);
+        } catch (IOException | RuntimeException e) {
+            MetricasHotel.registrarFallo(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+            throw e;
+        } finally {
+            MetricasHotel.registrar(MetricasHotel.Operacion.CARGAR_RESERVAS, medicion);
+        }
+    }
+
+    /**
+     * Convierte un archivo de reservas en texto (CSV) al formato binario por columnas.
+     *
+     * @param archivoCsv el archivo de reservas en texto
+     * @param archivoBinario el archivo binario a generar
+     * @return el resultado de la lectura del archivo en texto
+     * @throws IOException si ocurre un error al leer o escribir los archivos
+     */
+    public static ResultadoCarga convertirCsvABinario(String archivoCsv, String archivoBinario) throws IOException {
+        Hotel temporal = new Hotel();
+        ResultadoCarga resultado = cargarReservasParalelo(archivoCsv, temporal,
+                Runtime.getRuntime().availableProcessors());
+        guardarReservasBinario(temporal.obtenerReservasActivas(), archivoBinario);
+        return resultado;
+    }
+
+    /**
+     * Convierte un archivo de reservas en formato binario por columnas a texto (CSV).
+     *
+     * @param archivoBinario el archivo binario de reservas
+     * @param archivoCsv el archivo en texto a generar
+     * @return el resultado de la lectura del archivo binario
+     * @throws IOException si ocurre un error al leer o escribir los archivos
+     */
+    public static ResultadoCarga convertirBinarioACsv(String archivoBinario, String archivoCsv) throws IOException {
+        Hotel temporal = new Hotel();
+        ResultadoCarga resultado = cargarReservasBinario(archivoBinario, temporal);
+        guardarReservas(temporal.obtenerReservasActivas(), archivoCsv);
+        return resultado;
+    }
+}
@@ -1,115 +1,194 @@
-package Hotel;
-
-/**
- * La clase abstracta Habitacion representa una habitación en el hotel.
- * Define el tipo de habitación y la tarifa base, y obliga a las subclases a implementar
- * el cálculo de los costos adicionales.
- */
-abstract class Habitacion {
-    protected String tipo;
-    protected double tarifaBase;
-
-    /**
-     * Constructor de la clase Habitacion.
-     *
-     * @param tipo el tipo de habitación (Estandar, Ejecutiva, Suite Presidencial)
-     * @param tarifaBase la tarifa base de la habitación por noche
-     */
-    public Habitacion(String tipo, double tarifaBase) {
-        this.tipo = tipo;
-        this.tarifaBase = tarifaBase;
-    }
-
-    /**
-     * Calcula el costo adicional por personas y días en la habitación.
-     *
-     * @param personas el número de personas que se hospedarán
-     * @param dias el número de días de la reserva
-     * @return el costo adicional basado en el tipo de habitación
-     */
-    public abstract double calcularCostoAdicional(int personas, int dias);
-}
-
-/**
- * La clase HabitacionEstandar representa una habitación estándar en el hotel.
- * No tiene costos adicionales por personas ni días.
- */
-class HabitacionEstandar extends Habitacion {
-
-    /**
-     * Constructor de la clase HabitacionEstandar.
-     * Define la tarifa base de la habitación estándar como 50.
-     */
-    public HabitacionEstandar() {
-        super("Estandar", 50);
-    }
-
-    /**
-     * Calcula el costo adicional para una habitación estándar.
-     * En este caso, no se aplican costos adicionales.
-     *
-     * @param personas el número de personas (sin efecto en este tipo de habitación)
-     * @param dias el número de días (sin efecto en este tipo de habitación)
-     * @return siempre 0, ya que no hay costos adicionales
-     */
-    @Override
-    public double calcularCostoAdicional(int personas, int dias) {
-        return 0; // Sin costos adicionales
-    }
-}
-
-/**
- * La clase HabitacionEjecutiva representa una habitación ejecutiva en el hotel.
- * Aplica costos adicionales por personas y días de la reserva.
- */
-class HabitacionEjecutiva extends Habitacion {
-
-    /**
-     * Constructor de la clase HabitacionEjecutiva.
-     * Define la tarifa base de la habitación ejecutiva como 100.
-     */
-    public HabitacionEjecutiva() {
-        super("Ejecutiva", 100);
-    }
-
-    /**
-     * Calcula el costo adicional para una habitación ejecutiva.
-     * Se aplica un costo de 15 por cada persona y 10 por cada día.
-     *
-     * @param personas el número de personas en la habitación
-     * @param dias el número de días de la reserva
-     * @return el costo adicional basado en el número de personas y días
-     */
-    @Override
-    public double calcularCostoAdicional(int personas, int dias) {
-        return (15 * personas) + (10 * dias);
-    }
-}
-
-/**
- * La clase SuitePresidencial representa una suite presidencial en el hotel.
- * Aplica costos adicionales basados en los días y un cargo fijo.
- */
-class SuitePresidencial extends Habitacion {
-
-    /**
-     * Constructor de la clase SuitePresidencial.
-     * Define la tarifa base de la suite presidencial como 250.
-     */
-    public SuitePresidencial() {
-        super("Suite Presidencial", 250);
-    }
-
-    /**
-     * Calcula el costo adicional para una suite presidencial.
-     * Se aplica un costo de 50 por cada día y un cargo fijo de 30.
-     *
-     * @param personas el número de personas (sin efecto en este tipo de habitación)
-     * @param dias el número de días de la reserva
-     * @return el costo adicional basado en los días y el cargo fijo
-     */
-    @Override
-    public double calcularCostoAdicional(int personas, int dias) {
-        return (50 * dias) + 30;
-    }
-}
+package Hotel;
+
+/**
+ * La clase abstracta Habitacion representa una habitación en el hotel.
+ * Define el tipo de habitación, la tarifa base y los cargos adicionales por persona,
+ * por noche y fijo, y obliga a las subclases a implementar el cálculo de los costos
+ * adicionales. Las tarifas predeterminadas del hotel ({@link TablaTarifas#predeterminada()})
+ * calculan cada costo con {@link #calcularCostoAdicional(int, int)}, así que una subclase
+ * puede aplicar cualquier regla, no solo cargos proporcionales. Cada
+ * subclase se registra una vez en el {@link RegistroTiposHabitacion}, que le asigna
+ * el código de su tipo.
+ */
+abstract class Habitacion {
+    protected String tipo;
+    protected double tarifaBase;
+    protected double cargoPorPersona;
+    protected double cargoPorNoche;
+    protected double cargoFijo;
+    int codigo = -1;
+
+    /**
+     * Constructor de una habitación sin cargos adicionales.
+     *
+     * @param tipo el tipo de habitación (Estandar, Ejecutiva, Suite Presidencial, Junior Suite)
+     * @param tarifaBase la tarifa base de la habitación por noche
+     */
+    public Habitacion(String tipo, double tarifaBase) {
+        this(tipo, tarifaBase, 0, 0, 0);
+    }
+
+    /**
+     * Constructor de la clase Habitacion.
+     *
+     * @param tipo el tipo de habitación (Estandar, Ejecutiva, Suite Presidencial, Junior Suite)
+     * @param tarifaBase la tarifa base de la habitación por noche
+     * @param cargoPorPersona el cargo adicional por cada persona
+     * @param cargoPorNoche el cargo adicional por cada noche
+     * @param cargoFijo el cargo adicional único por reserva
+     */
+    public Habitacion(String tipo, double tarifaBase, double cargoPorPersona, double cargoPorNoche,
+                      double cargoFijo) {
+        this.tipo = tipo;
+        this.tarifaBase = tarifaBase;
+        this.cargoPorPersona = cargoPorPersona;
+        this.cargoPorNoche = cargoPorNoche;
+        this.cargoFijo = cargoFijo;
+    }
+
+    /**
+     * Obtiene el código del tipo de esta habitación en el {@link RegistroTiposHabitacion}.
+     * Las instancias que no son la registrada obtienen el código de su tipo por nombre.
+     *
+     * @return el código del tipo, o -1 si el tipo no está registrado
+     */
+    public int getCodigo() {
+        return codigo >= 0 ? codigo : RegistroTiposHabitacion.codigoDe(tipo);
+    }
+
+    /**
+     * Calcula el costo total de una reserva de esta habitación con sus propias tarifas:
+     * la tarifa base por cada día más el costo adicional de la subclase.
+     *
+     * @param dias el número de días de la reserva
+     * @param personas el número de personas que se hospedarán
+     * @return el costo total de la reserva en centavos
+     */
+    final long costoCentavos(int dias, int personas) {
+        return Math.round((tarifaBase * dias + calcularCostoAdicional(personas, dias)) * 100);
+    }
+
+    /**
+     * Calcula el costo adicional por personas y días en la habitación.
+     *
+     * @param personas el número de personas que se hospedarán
+     * @param dias el número de días de la reserva
+     * @return el costo adicional basado en el tipo de habitación
+     */
+    public abstract double calcularCostoAdicional(int personas, int dias);
+}
+
+/**
+ * La clase HabitacionEstandar representa una habitación estándar en el hotel.
+ * No tiene costos adicionales por personas ni días.
+ */
+class HabitacionEstandar extends Habitacion {
+
+    /**
+     * Constructor de la clase HabitacionEstandar.
+     * Define la tarifa base de la habitación estándar como 50.
+     */
+    public HabitacionEstandar() {
+        super("Estandar", 50);
+    }
+
+    /**
+     * Calcula el costo adicional para una habitación estándar.
+     * En este caso, no se aplican costos adicionales.
+     *
+     * @param personas el número de personas (sin efecto en este tipo de habitación)
+     * @param dias el número de días (sin efecto en este tipo de habitación)
+     * @return siempre 0, ya que no hay costos adicionales
+     */
+    @Override
+    public double calcularCostoAdicional(int personas, int dias) {
+        return 0; // Sin costos adicionales
+    }
+}
+
+/**
+ * La clase HabitacionEjecutiva representa una habitación ejecutiva en el hotel.
+ * Aplica costos adicionales por personas y días de la reserva.
+ */
+class HabitacionEjecutiva extends Habitacion {
+
+    /**
+     * Constructor de la clase HabitacionEjecutiva.
+     * Define la tarifa base de la habitación ejecutiva como 100, con un cargo de 15
+     * por persona y 10 por noche.
+     */
+    public HabitacionEjecutiva() {
+        super("Ejecutiva", 100, 15, 10, 0);
+    }
+
+    /**
+     * Calcula el costo adicional para una habitación ejecutiva.
+     * Se aplica un costo de 15 por cada persona y 10 por cada día.
+     *
+     * @param personas el número de personas en la habitación
+     * @param dias el número de días de la reserva
+     * @return el costo adicional basado en el número de personas y días
+     */
+    @Override
+    public double calcularCostoAdicional(int personas, int dias) {
+        return (cargoPorPersona * personas) + (cargoPorNoche * dias);
+    }
+}
+
+/**
+ * La clase SuitePresidencial representa una suite presidencial en el hotel.
+ * Aplica costos adicionales basados en los días y un cargo fijo.
+ */
+class SuitePresidencial extends Habitacion {
+
+    /**
+     * Constructor de la clase SuitePresidencial.
+     * Define la tarifa base de la suite presidencial como 250, con un cargo de 50
+     * por noche y un cargo fijo de 30.
+     */
+    public SuitePresidencial() {
+        super("Suite Presidencial", 250, 0, 50, 30);
+    }
+
+    /**
+     * Calcula el costo adicional para una suite presidencial.
+     * Se aplica un costo de 50 por cada día y un cargo fijo de 30.
+     *
+     * @param personas el número de personas (sin efecto en este tipo de habitación)
+     * @param dias el número de días de la reserva
+     * @return el costo adicional basado en los días y el cargo fijo
+     */
+    @Override
+    public double calcularCostoAdicional(int personas, int dias) {
+        return (cargoPorNoche * dias) + cargoFijo;
+    }
+}
+
+/**
+ * La clase JuniorSuite representa una junior suite en el hotel.
+ * Aplica costos adicionales por personas y días de la reserva.
+ */
+class JuniorSuite extends Habitacion {
+
+    /**
+     * Constructor de la clase JuniorSuite.
+     * Define la tarifa base de la junior suite como 170, con un cargo de 20 por
+     * persona y 25 por noche.
+     */
+    public JuniorSuite() {
+        super("Junior Suite", 170, 20, 25, 0);
+    }
+
+    /**
+     * Calcula el costo adicional para una junior suite.
+     * Se aplica un costo de 20 por cada persona y 25 por cada día.
+     *
+     * @param personas el número de personas en la habitación
+     * @param dias el número de días de la reserva
+     * @return el costo adicional basado en el número de personas y días
+     */
+    @Override
+    public double calcularCostoAdicional(int personas, int dias) {
+        return (cargoPorPersona * personas) + (cargoPorNoche * dias);
+    }
+}
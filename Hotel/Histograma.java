@@ -0,0 +1,172 @@
+package Hotel;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * La clase Histograma acumula duraciones en nanosegundos en cubetas de tamaño
+ * logarítmico, al estilo de HdrHistogram: cada potencia de dos se divide en 32
+ * cubetas iguales, por lo que el error de cualquier percentil es menor al 3,2 %
+ * en todo el rango de valores.
+ *
+ * Registrar un valor no crea objetos ni toma candados; puede hacerse desde
+ * varios hilos a la vez. Los percentiles se calculan sobre una lectura de las
+ * cubetas que no se detiene mientras se siguen registrando valores.
+ */
+class Histograma implements HistogramaMXBean {
+    private static final int BITS_SUBCUBETA = 5;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int CUBETAS = (Long.SIZE - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra una duración.
+     *
+     * @param nanos la duración en nanosegundos; los valores negativos se cuentan como 0
+     */
+    public void registrar(long nanos) {
+        registrar(nanos, 1);
+    }
+
+    /**
+     * Registra una duración medida en una de cada {@code peso} operaciones, contándola
+     * como si se hubiera medido {@code peso} veces.
+     *
+     * @param nanos la duración en nanosegundos; los valores negativos se cuentan como 0
+     * @param peso el número de operaciones que representa la medición
+     */
+    public void registrar(long nanos, int peso) {
+        long valor = Math.max(nanos, 0);
+        cubetas.addAndGet(cubeta(valor), peso);
+        cantidad.add(peso);
+        suma.add(valor * peso);
+        long actual = maximo.get();
+        while (valor > actual && !maximo.compareAndSet(actual, valor)) {
+            actual = maximo.get();
+        }
+    }
+
+    /**
+     * Cuenta las operaciones que terminaron con una excepción.
+     *
+     * @param peso el número de operaciones que representa la medición
+     */
+    public void registrarFallo(int peso) {
+        fallos.add(peso);
+    }
+
+    /**
+     * Calcula la cubeta de un valor: los valores menores a 32 tienen cubeta propia,
+     * y el resto se ubica por su bit más alto y los 5 bits siguientes.
+     */
+    private static int cubeta(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int desplazamiento = exponente - BITS_SUBCUBETA;
+        return (desplazamiento << BITS_SUBCUBETA) + (int) (valor >>> desplazamiento);
+    }
+
+    /**
+     * Calcula el mayor valor que cae en una cubeta.
+     */
+    private static long maximoDeCubeta(int cubeta) {
+        if (cubeta < 2 * SUBCUBETAS) {
+            return cubeta;
+        }
+        int desplazamiento = (cubeta >>> BITS_SUBCUBETA) - 1;
+        long base = (cubeta & (SUBCUBETAS - 1)) + SUBCUBETAS;
+        return ((base + 1) << desplazamiento) - 1;
+    }
+
+    /**
+     * Calcula un percentil de las duraciones registradas.
+     *
+     * @param percentil el percentil, entre 0 y 100
+     * @return el valor del percentil en nanosegundos, o 0 si no hay valores
+     */
+    public long percentil(double percentil) {
+        long[] conteos = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            conteos[i] = cubetas.get(i);
+            total += conteos[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(total * Math.min(percentil, 100) / 100));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += conteos[i];
+            if (acumulado >= objetivo) {
+                return Math.min(maximoDeCubeta(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Vuelve el histograma a cero. Los valores registrados durante el reinicio
+     * pueden conservarse o perderse.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas.set(i, 0);
+        }
+        cantidad.reset();
+        suma.reset();
+        fallos.reset();
+        maximo.set(0);
+    }
+
+    @Override
+    public long getCantidad() {
+        return cantidad.sum();
+    }
+
+    @Override
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    @Override
+    public double getMediaNanos() {
+        long n = cantidad.sum();
+        return n == 0 ? 0 : (double) suma.sum() / n;
+    }
+
+    @Override
+    public long getMaximoNanos() {
+        return maximo.get();
+    }
+
+    @Override
+    public long getPercentil50Nanos() {
+        return percentil(50);
+    }
+
+    @Override
+    public long getPercentil99Nanos() {
+        return percentil(99);
+    }
+
+    @Override
+    public long getPercentil999Nanos() {
+        return percentil(99.9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d fallos=%d media=%.0fns p50=%dns p99=%dns p99.9=%dns max=%dns",
+                getCantidad(), getFallos(), getMediaNanos(), getPercentil50Nanos(),
+                getPercentil99Nanos(), getPercentil999Nanos(), getMaximoNanos());
+    }
+}
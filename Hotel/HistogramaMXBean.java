@@ -0,0 +1,42 @@
+package Hotel;
+
+/**
+ * Vista JMX de un {@link Histograma} de duraciones de una operación.
+ */
+public interface HistogramaMXBean {
+
+    /**
+     * @return el número de operaciones medidas
+     */
+    long getCantidad();
+
+    /**
+     * @return el número de operaciones que terminaron con una excepción
+     */
+    long getFallos();
+
+    /**
+     * @return la duración media en nanosegundos
+     */
+    double getMediaNanos();
+
+    /**
+     * @return la mayor duración registrada en nanosegundos
+     */
+    long getMaximoNanos();
+
+    /**
+     * @return la mediana de las duraciones en nanosegundos
+     */
+    long getPercentil50Nanos();
+
+    /**
+     * @return el percentil 99 de las duraciones en nanosegundos
+     */
+    long getPercentil99Nanos();
+
+    /**
+     * @return el percentil 99,9 de las duraciones en nanosegundos
+     */
+    long getPercentil999Nanos();
+}
@@ -0,0 +1,213 @@
+package Hotel;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * La clase HistoricoReservas guarda las reservas de los meses antiguos en un directorio
+ * con un archivo por mes ({@code AAAA-MM.csv}), fuera de la memoria del hotel.
+ *
+ * Al arrancar, {@link #archivar(TablaReservas, int)} pasa a su archivo los meses
+ * anteriores a la ventana activa y devuelve solo las reservas de la ventana, que son
+ * las que se cargan en el hotel. Así el tiempo de arranque y la memoria no crecen con
+ * los años de historia. Un mes se archiva solo si todas sus estadías terminan antes
+ * de la ventana, de modo que la disponibilidad de las noches de la ventana no depende
+ * de meses archivados.
+ *
+ * Los archivos de meses archivados no vuelven a modificarse: el hotel no admite altas
+ * en esos meses. Cuando una consulta de ingresos u ocupación toca un mes archivado,
+ * el hotel lee su archivo (proyectado en memoria) y suma sus reservas a los agregados,
+ * sin guardar las filas; cada mes se lee como mucho una vez.
+ */
+class HistoricoReservas {
+    private static final Pattern NOMBRE_MES = Pattern.compile("(\\d{4})-(\\d{2})\\.csv");
+
+    private final String directorio;
+    private final ConcurrentSkipListSet<Integer> archivados = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Integer> pendientes = new ConcurrentSkipListSet<>();
+    private volatile int ultimoDiaArchivado = -1;
+    private volatile int primerDiaActivo = Integer.MAX_VALUE;
+    private long filasArchivadas;
+
+    /**
+     * Abre el directorio del histórico, creándolo si no existe, y registra los meses
+     * que ya tienen archivo. Ningún archivo se lee hasta que una consulta lo necesita.
+     *
+     * @param directorio el directorio de los archivos por mes
+     * @throws IOException si no se puede crear o recorrer el directorio
+     */
+    public HistoricoReservas(String directorio) throws IOException {
+        this.directorio = directorio;
+        Path ruta = Paths.get(directorio);
+        Files.createDirectories(ruta);
+        DiarioReservas.sincronizarDirectorio(ruta);
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(ruta, "*.csv")) {
+            for (Path archivo : archivos) {
+                Matcher nombre = NOMBRE_MES.matcher(archivo.getFileName().toString());
+                if (nombre.matches()) {
+                    registrar(IndiceReservas.claveMes(Integer.parseInt(nombre.group(1)),
+                            Integer.parseInt(nombre.group(2))));
+                }
+            }
+        }
+    }
+
+    private void registrar(int claveMes) {
+        archivados.add(claveMes);
+        pendientes.add(claveMes);
+        int año = claveMes / 100;
+        int mes = claveMes % 100;
+        ultimoDiaArchivado = Math.max(ultimoDiaArchivado,
+                Calendario.diaEpoch(año, mes, Calendario.diasDelMes(año, mes)));
+    }
+
+    /**
+     * Indica si un mes está archivado.
+     *
+     * @param claveMes el mes, con el formato aaaamm
+     * @return true si el mes tiene su archivo en el histórico
+     */
+    public boolean estaArchivado(int claveMes) {
+        return archivados.contains(claveMes);
+    }
+
+    /**
+     * Indica si un día cae en un mes archivado. Los días posteriores al último mes
+     * archivado, que son casi todos los que se consultan, se descartan sin buscar.
+     *
+     * @param diaEpoch el día, como día desde la época
+     * @return true si el mes del día está archivado
+     */
+    public boolean contieneDia(int diaEpoch) {
+        if (diaEpoch > ultimoDiaArchivado) {
+            return false;
+        }
+        return estaArchivado(Calendario.claveMes(diaEpoch));
+    }
+
+    /**
+     * Indica si queda algún mes archivado sin leer en un rango de meses.
+     *
+     * @param desde el primer mes, con el formato aaaamm
+     * @param hasta el último mes, con el formato aaaamm
+     * @return true si algún mes del rango está archivado y todavía no se leyó
+     */
+    public boolean hayPendientes(int desde, int hasta) {
+        Integer primero = pendientes.ceiling(desde);
+        return primero != null && primero <= hasta;
+    }
+
+    /**
+     * Obtiene los meses archivados que todavía no se leyeron en un rango de meses.
+     *
+     * @param desde el primer mes, con el formato aaaamm
+     * @param hasta el último mes, con el formato aaaamm
+     * @return los meses pendientes, en orden
+     */
+    public int[] pendientes(int desde, int hasta) {
+        return pendientes.subSet(desde, true, hasta, true).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Marca un mes archivado como ya leído y sumado a los agregados del hotel.
+     *
+     * @param claveMes el mes, con el formato aaaamm
+     * @return true si el mes estaba pendiente
+     */
+    public boolean marcarLeido(int claveMes) {
+        return pendientes.remove(claveMes);
+    }
+
+    /**
+     * Lee las reservas de un mes archivado, proyectando su archivo en memoria.
+     *
+     * @param claveMes el mes, con el formato aaaamm
+     * @return las reservas del mes, sin costos calculados
+     * @throws IOException si ocurre un error al leer el archivo
+     */
+    public TablaReservas leerMes(int claveMes) throws IOException {
+        return GestorArchivos.leerReservasParalelo(archivo(claveMes), 1).reservas;
+    }
+
+    /**
+     * Obtiene el primer día de la ventana activa con que se archivó por última vez.
+     * Todas las estadías archivadas terminan antes de ese día, por lo que las noches
+     * posteriores no dependen del histórico.
+     *
+     * @return el primer día de la ventana activa, como día desde la época, o
+     *         {@link Integer#MAX_VALUE} si todavía no se archivó en esta ejecución
+     */
+    public int getPrimerDiaActivo() {
+        return primerDiaActivo;
+    }
+
+    private String archivo(int claveMes) {
+        return GestorArchivos.archivoDeMes(directorio, claveMes / 100, claveMes % 100);
+    }
+
+    /**
+     * Archiva los meses anteriores a la ventana activa cuyas estadías terminan todas
+     * antes de ella, escribiendo un archivo por mes, y devuelve las reservas que deben
+     * quedar en el hotel. Las reservas de meses que ya estaban archivados se descartan:
+     * solo pueden ser copias que quedaron en la instantánea si el programa se detuvo
+     * entre el archivado y la compactación siguiente.
+     *
+     * @param reservas todas las reservas de la instantánea y el diario
+     * @param primerMesActivo el primer mes de la ventana activa, con el formato aaaamm
+     * @return las reservas que no se archivaron, en su orden original
+     * @throws IOException si ocurre un error al escribir algún archivo
+     */
+    public TablaReservas archivar(TablaReservas reservas, int primerMesActivo) throws IOException {
+        VistaReservas vista = reservas.vista();
+        int primerDiaActivo = Calendario.primerDia(primerMesActivo);
+        this.primerDiaActivo = primerDiaActivo;
+        int[] meses = new int[vista.size()];
+        Map<Integer, Integer> ultimaNoche = new TreeMap<>();
+        for (int i = 0; i < vista.size(); i++) {
+            meses[i] = Calendario.claveMes(vista.diaEpoch(i));
+            if (meses[i] < primerMesActivo && !estaArchivado(meses[i])) {
+                ultimaNoche.merge(meses[i], vista.diaEpoch(i) + vista.dias(i), Math::max);
+            }
+        }
+
+        Map<Integer, TablaReservas> porMes = new TreeMap<>();
+        for (Map.Entry<Integer, Integer> mes : ultimaNoche.entrySet()) {
+            if (mes.getValue() <= primerDiaActivo) {
+                porMes.put(mes.getKey(), new TablaReservas());
+            }
+        }
+        TablaReservas activas = new TablaReservas(vista.size());
+        for (int i = 0; i < vista.size(); i++) {
+            TablaReservas destino = porMes.get(meses[i]);
+            if (destino == null && estaArchivado(meses[i])) {
+                continue;
+            }
+            (destino != null ? destino : activas).agregar(vista.codigoTipo(i), vista.diaEpoch(i),
+                    vista.dias(i), vista.personas(i), vista.costoCentavos(i));
+        }
+
+        for (Map.Entry<Integer, TablaReservas> mes : porMes.entrySet()) {
+            GestorArchivos.guardarParticion(mes.getValue().vista(), archivo(mes.getKey()));
+            registrar(mes.getKey());
+            filasArchivadas += mes.getValue().tamaño();
+        }
+        return activas;
+    }
+
+    /**
+     * Obtiene el número de reservas que se archivaron desde que se abrió el histórico.
+     *
+     * @return el número de reservas archivadas
+     */
+    public long getFilasArchivadas() {
+        return filasArchivadas;
+    }
+}
@@ -1,78 +1,893 @@
-package Hotel;
-
-// Hotel.java
-import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * La clase Hotel representa un hotel con una lista de reservas.
- * Permite agregar reservas y obtener estadísticas de ingresos por tipo de habitación y por mes.
- */
-class Hotel {
-    private List<Reserva> reservas;
-
-    /**
-     * Constructor de la clase Hotel.
-     * Inicializa la lista de reservas.
-     */
-    public Hotel() {
-        reservas = new ArrayList<>();
-    }
-
-    /**
-     * Agrega una reserva a la lista de reservas del hotel.
-     *
-     * @param reserva la reserva a agregar
-     */
-    public void agregarReserva(Reserva reserva) {
-        reservas.add(reserva);
-    }
-
-    /**
-     * Obtiene la lista de reservas activas en el hotel.
-     *
-     * @return una lista de reservas activas
-     */
-    public List<Reserva> obtenerReservasActivas() {
-        return reservas;
-    }
-
-    /**
-     * Calcula los ingresos de un tipo específico de habitación en un mes y año dados.
-     *
-     * @param tipo el tipo de habitación (Estandar, Ejecutiva, Suite Presidencial)
-     * @param mes el mes en el que se desea calcular los ingresos (1 a 12)
-     * @param año el año en el que se desea calcular los ingresos
-     * @return los ingresos totales generados por el tipo de habitación en el mes y año indicados
-     */
-    public double calcularIngresosPorTipoYMes(String tipo, int mes, int año) {
-        return reservas.stream()
-                .filter(r -> r.getTipoHabitacion().equals(tipo))
-                .filter(r -> r.getFechaInicio().getMonthValue() == mes
-                        && r.getFechaInicio().getYear() == año)
-                .mapToDouble(Reserva::calcularCostoTotal)
-                .sum();
-    }
-
-    /**
-     * Determina el tipo de habitación que generó más ingresos en un mes y año específicos.
-     *
-     * @param mes el mes en el que se desea encontrar el tipo de habitación con mayor ingresos (1 a 12)
-     * @param año el año en el que se desea encontrar el tipo de habitación con mayor ingresos
-     * @return el tipo de habitación (Estandar, Ejecutiva, Suite Presidencial) con mayores ingresos
-     */
-    public String tipoHabitacionMayorIngresosMes(int mes, int año) {
-        double ingresosEstandar = calcularIngresosPorTipoYMes("Estandar", mes, año);
-        double ingresosEjecutiva = calcularIngresosPorTipoYMes("Ejecutiva", mes, año);
-        double ingresosSuite = calcularIngresosPorTipoYMes("Suite Presidencial", mes, año);
-
-        if (ingresosEstandar > ingresosEjecutiva && ingresosEstandar > ingresosSuite) {
-            return "Estandar";
-        } else if (ingresosEjecutiva > ingresosSuite) {
-            return "Ejecutiva";
-        } else {
-            return "Suite Presidencial";
-        }
-    }
-}
+package Hotel;
+
+// Hotel.java
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * La clase Hotel representa un hotel con una lista de reservas.
+ * Permite agregar reservas y obtener estadísticas de ingresos por tipo de habitación y por mes.
+ *
+ * Las reservas se guardan en una {@link TablaReservas} por columnas de tipos primitivos,
+ * con las habitaciones compartidas por tipo, y se indexan por fecha de inicio para
+ * listar rangos de fechas sin recorrer toda la tabla.
+ *
+ * Un hotel puede usarse desde varios hilos a la vez. Las altas se serializan con un
+ * candado de escritura, ya que todas se agregan al final de la misma tabla; las consultas
+ * toman el candado de lectura y por eso ven siempre un estado consistente, en el que cada
+ * alta o lote de altas está aplicado por completo o no está aplicado.
+ *
+ * Los resultados de las consultas de ingresos y ocupación se guardan en una cache LRU.
+ * Cada alta descarta solo los resultados de los meses y fechas que afecta.
+ *
+ * El hotel puede tener un número limitado de habitaciones de cada tipo; en ese caso
+ * rechaza las reservas que dejarían alguna noche con más habitaciones ocupadas que
+ * las disponibles.
+ */
+class Hotel {
+    private static final int CAPACIDAD_CACHE = 10_000;
+    private static final int ERRORES_MOSTRADOS = 20;
+
+    private TablaReservas tabla;
+    private IndiceReservas indice;
+    private CuboIngresos cubo;
+    private Disponibilidad disponibilidad;
+    private MotorTarifas motorTarifas;
+    private HistoricoReservas historico;
+    private final CacheConsultas<ClaveConsulta, Object> cache = new CacheConsultas<>(CAPACIDAD_CACHE,
+            ClaveConsulta::etiquetas);
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor de la clase Hotel.
+     * Inicializa la tabla de reservas y su índice por fecha, sin límite de
+     * habitaciones por tipo.
+     */
+    public Hotel() {
+        this(Map.of());
+    }
+
+    /**
+     * Constructor de la clase Hotel con un número limitado de habitaciones por tipo
+     * y las tarifas predeterminadas.
+     *
+     * @param inventario el número de habitaciones de cada tipo; los tipos que no
+     *                   aparecen no tienen límite
+     * @throws IllegalArgumentException si un tipo no existe o su número de habitaciones es negativo
+     */
+    public Hotel(Map<String, Integer> inventario) {
+        this(inventario, TablaTarifas.predeterminada());
+    }
+
+    /**
+     * Constructor de la clase Hotel con un número limitado de habitaciones por tipo
+     * y un motor de tarifas propio. El costo de cada reserva se calcula con el motor
+     * una sola vez, al agregarla.
+     *
+     * @param inventario el número de habitaciones de cada tipo; los tipos que no
+     *                   aparecen no tienen límite
+     * @param motorTarifas el motor con que se calcula el costo de las reservas
+     * @throws IllegalArgumentException si un tipo no existe o su número de habitaciones es negativo
+     */
+    public Hotel(Map<String, Integer> inventario, MotorTarifas motorTarifas) {
+        int[] habitaciones = new int[RegistroTiposHabitacion.cantidad()];
+        Arrays.fill(habitaciones, Disponibilidad.SIN_LIMITE);
+        for (Map.Entry<String, Integer> entrada : inventario.entrySet()) {
+            int codigo = RegistroTiposHabitacion.codigoDe(entrada.getKey());
+            if (codigo < 0 || entrada.getValue() < 0) {
+                throw new IllegalArgumentException("Inventario no válido: " + entrada);
+            }
+            habitaciones[codigo] = entrada.getValue();
+        }
+        tabla = new TablaReservas();
+        indice = new IndiceReservas();
+        cubo = new CuboIngresos();
+        disponibilidad = new Disponibilidad(habitaciones);
+        this.motorTarifas = motorTarifas;
+    }
+
+    /**
+     * Agrega una reserva a la tabla de reservas del hotel y la suma al cubo de
+     * ingresos. La reserva se valida igual que las de {@link #agregarReservas(Collection)},
+     * así que se acepta o se rechaza igual sola que en un lote. La comprobación de
+     * disponibilidad y el alta se hacen en un solo paso, por lo que dos reservas
+     * simultáneas nunca pueden ocupar la misma última habitación libre.
+     *
+     * @param reserva la reserva a agregar
+     * @throws IllegalArgumentException si el tipo de habitación no es conocido, los días,
+     *                                  personas o fechas están fuera de rango o el mes está archivado
+     * @throws SinDisponibilidadException si no quedan habitaciones del tipo en alguna noche de la reserva
+     */
+    public void agregarReserva(Reserva reserva) {
+        long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.AGREGAR_RESERVA);
+        try {
+            String error = validar(reserva);
+            if (error != null) {
+                throw new IllegalArgumentException(Character.toUpperCase(error.charAt(0)) + error.substring(1));
+            }
+            int codigo = reserva.getCodigoTipo();
+            long costo = motorTarifas.costoCentavos(codigo, reserva.getDias(), reserva.getPersonas());
+            int diaInicio = reserva.getDiaEpoch();
+            leerArchivadosAntesDe(diaInicio, diaInicio + reserva.getDias());
+            candado.writeLock().lock();
+            try {
+                if (!disponibilidad.hayDisponibilidad(codigo, diaInicio, reserva.getDias(), 1)) {
+                    throw new SinDisponibilidadException("No hay habitaciones " + reserva.getTipoHabitacion()
+                            + " disponibles desde el " + reserva.getFechaInicio() + " por " + reserva.getDias() + " días");
+                }
+                tabla.agregar(codigo, diaInicio, reserva.getDias(), reserva.getPersonas(), costo);
+                disponibilidad.ocupar(codigo, diaInicio, reserva.getDias(), 1);
+                cubo.agregar(codigo, diaInicio, reserva.getDias(), reserva.getPersonas(), costo);
+                reserva.asignarCosto(costo);
+                int mes = reserva.getClaveMes();
+                long[] etiquetas = ClaveConsulta.etiquetas(codigo, mes,
+                        Calendario.claveMes(diaInicio + reserva.getDias() - 1));
+                cache.invalidar(etiquetas, clave -> clave.afectadaPor(codigo, mes, diaInicio, reserva.getDias()));
+            } finally {
+                candado.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            MetricasHotel.registrarFallo(MetricasHotel.Operacion.AGREGAR_RESERVA, medicion);
+            throw e;
+        } finally {
+            MetricasHotel.registrar(MetricasHotel.Operacion.AGREGAR_RESERVA, medicion);
+        }
+    }
+
+    /**
+     * Agrega un conjunto de reservas al hotel en un solo paso, conservando su orden.
+     * Antes de agregar nada se validan todas: tipo conocido, fecha dentro del rango
+     * admitido y en un mes no archivado, al menos un día y al menos una persona. Si alguna no es válida, o si
+     * alguna no tiene disponibilidad, no se agrega ninguna y la excepción enumera
+     * todas las reservas rechazadas, no solo la primera.
+     * Los índices, el cubo de ingresos y la cache se actualizan una sola vez por lote.
+     *
+     * @param nuevas las reservas a agregar
+     * @throws IllegalArgumentException si alguna reserva no es válida
+     * @throws SinDisponibilidadException si alguna reserva no tiene disponibilidad
+     */
+    public void agregarReservas(Collection<Reserva> nuevas) {
+        long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.AGREGAR_RESERVAS);
+        try {
+            agregarLote(nuevas);
+        } catch (RuntimeException e) {
+            MetricasHotel.registrarFallo(MetricasHotel.Operacion.AGREGAR_RESERVAS, medicion);
+            throw e;
+        } finally {
+            MetricasHotel.registrar(MetricasHotel.Operacion.AGREGAR_RESERVAS, medicion);
+        }
+    }
+
+    private void agregarLote(Collection<Reserva> nuevas) {
+        TablaReservas lote = new TablaReservas(nuevas.size());
+        List<String> errores = new ArrayList<>();
+        int posicion = 0;
+        for (Reserva reserva : nuevas) {
+            posicion++;
+            String error = validar(reserva);
+            if (error != null) {
+                errores.add("reserva " + posicion + ": " + error);
+            } else if (errores.isEmpty()) {
+                lote.agregar(reserva);
+            }
+        }
+        if (!errores.isEmpty()) {
+            throw new IllegalArgumentException(describirErrores("reservas no válidas", errores));
+        }
+        VistaReservas vista = lote.vista();
+        for (int i = 0; i < vista.size(); i++) {
+            leerArchivadosAntesDe(vista.diaEpoch(i), vista.diaEpoch(i) + vista.dias(i));
+        }
+        agregarTabla(lote, true);
+        // El lote ya quedó tarificado; cada reserva toma el costo con que se guardó
+        vista = lote.vista();
+        int fila = 0;
+        for (Reserva reserva : nuevas) {
+            reserva.asignarCosto(vista.costoCentavos(fila++));
+        }
+    }
+
+    /**
+     * Agrega las reservas de un flujo en un solo paso, con las mismas validaciones
+     * que {@link #agregarReservas(Collection)}.
+     *
+     * @param nuevas el flujo de reservas a agregar
+     * @throws IllegalArgumentException si alguna reserva no es válida
+     * @throws SinDisponibilidadException si alguna reserva no tiene disponibilidad
+     */
+    public void agregarReservas(Stream<Reserva> nuevas) {
+        agregarReservas(nuevas.collect(Collectors.toList()));
+    }
+
+    /**
+     * Valida los datos de una reserva sin consultar la disponibilidad.
+     *
+     * @return la descripción del problema, o null si la reserva es válida
+     */
+    private String validar(Reserva reserva) {
+        if (reserva == null) {
+            return "la reserva es nula";
+        }
+        if (reserva.getCodigoTipo() < 0) {
+            return "tipo de habitación desconocido: " + reserva.getTipoHabitacion();
+        }
+        if (reserva.getDias() < 1 || reserva.getDias() > Short.MAX_VALUE) {
+            return "cantidad de días no válida: " + reserva.getDias();
+        }
+        if (reserva.getPersonas() < 1 || reserva.getPersonas() > Short.MAX_VALUE) {
+            return "cantidad de personas no válida: " + reserva.getPersonas();
+        }
+        if (reserva.getFechaInicio() == null
+                || !Disponibilidad.enRango(reserva.getDiaEpoch(), reserva.getDias())) {
+            return "estadía fuera del rango de fechas admitido: " + reserva.getFechaInicio()
+                    + " por " + reserva.getDias() + " días";
+        }
+        if (historico != null && historico.contieneDia(reserva.getDiaEpoch())) {
+            return "el mes de " + reserva.getFechaInicio() + " está archivado";
+        }
+        return null;
+    }
+
+    /**
+     * Arma el mensaje de una excepción con los errores de un lote, mostrando como
+     * mucho los primeros {@value #ERRORES_MOSTRADOS}.
+     */
+    private static String describirErrores(String titulo, List<String> errores) {
+        StringBuilder mensaje = new StringBuilder();
+        mensaje.append(errores.size()).append(' ').append(titulo).append(':');
+        for (int i = 0; i < Math.min(errores.size(), ERRORES_MOSTRADOS); i++) {
+            mensaje.append(System.lineSeparator()).append("  ").append(errores.get(i));
+        }
+        if (errores.size() > ERRORES_MOSTRADOS) {
+            mensaje.append(System.lineSeparator()).append("  y ")
+                    .append(errores.size() - ERRORES_MOSTRADOS).append(" más");
+        }
+        return mensaje.toString();
+    }
+
+    /**
+     * Agrega al hotel todas las reservas de una tabla, en su mismo orden.
+     * Es la vía que usan las cargas desde archivo, que
+     * construyen sus lotes directamente como columnas y ya descartaron las filas que
+     * no cumplen {@link ParserReservas#esValida(int, int, int)}.
+     *
+     * Las reservas ya estaban guardadas, así que se agregan todas aunque superen el
+     * inventario: un archivo anterior al inventario, o un inventario reducido después,
+     * no debe impedir abrir el hotel ni perder reservas. Las que no tenían disponibilidad
+     * se cuentan para informarlas, y dejan las noches afectadas sin habitaciones libres.
+     *
+     * @param lote la tabla con las reservas a agregar
+     * @return el número de reservas agregadas que superaban el inventario
+     * @throws IllegalArgumentException si alguna estadía está fuera del rango de fechas admitido
+     *                                  o empieza en un mes archivado
+     */
+    long agregarTabla(TablaReservas lote) {
+        return agregarTabla(lote, false);
+    }
+
+    /**
+     * Agrega al hotel todas las reservas de una tabla. Si el lote es grande, su cubo de
+     * ingresos se construye en paralelo antes de tomar el candado y se suma al del hotel
+     * de una vez; si es chico, sus filas se agregan directamente al cubo del hotel.
+     *
+     * @param lote la tabla con las reservas a agregar
+     * @param exigirDisponibilidad true para no agregar ninguna si alguna no tiene
+     *                             disponibilidad, o false para agregarlas todas
+     * @return el número de reservas agregadas que superaban el inventario
+     * @throws SinDisponibilidadException si se exige disponibilidad y alguna reserva no la tiene
+     */
+    private long agregarTabla(TablaReservas lote, boolean exigirDisponibilidad) {
+        VistaReservas vista = lote.vista();
+        for (int i = 0; i < vista.size(); i++) {
+            verificarNoArchivada(vista.diaEpoch(i));
+        }
+        lote.calcularCostos(motorTarifas);
+        CuboIngresos cuboLote = CuboIngresos.convieneConstruir(vista) ? CuboIngresos.construir(vista) : null;
+        candado.writeLock().lock();
+        try {
+            long sobreocupadas = exigirDisponibilidad ? ocuparTodas(vista) : ocuparSinLimite(vista);
+            tabla.agregarTodas(lote);
+            sumarAlCubo(vista, cuboLote);
+            cache.invalidarTodo();
+            return sobreocupadas;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suma las reservas de una vista al cubo de ingresos del hotel. Debe llamarse con el
+     * candado de escritura tomado.
+     *
+     * @param vista las reservas a sumar
+     * @param cuboVista el cubo ya construido de la vista, o null para agregar sus filas una por una
+     */
+    private void sumarAlCubo(VistaReservas vista, CuboIngresos cuboVista) {
+        if (cuboVista != null) {
+            cubo.sumar(cuboVista);
+        } else {
+            cubo.agregarTodas(vista);
+        }
+    }
+
+    /**
+     * Suma la ocupación de todas las reservas de una vista, tengan disponibilidad o no.
+     *
+     * @return el número de reservas que no tenían disponibilidad
+     */
+    private long ocuparSinLimite(VistaReservas vista) {
+        long sobreocupadas = 0;
+        for (int i = 0; i < vista.size(); i++) {
+            int codigo = vista.codigoTipo(i);
+            if (!disponibilidad.hayDisponibilidad(codigo, vista.diaEpoch(i), vista.dias(i), 1)) {
+                sobreocupadas++;
+            }
+            disponibilidad.ocupar(codigo, vista.diaEpoch(i), vista.dias(i), 1);
+        }
+        return sobreocupadas;
+    }
+
+    /**
+     * Suma la ocupación de todas las reservas de una vista. Si alguna no tiene
+     * disponibilidad, sigue comprobando el resto para informar todas las rechazadas,
+     * y al final deshace lo sumado sin dejar cambios.
+     *
+     * @return 0, ya que si alguna reserva no tiene disponibilidad no se suma ninguna
+     */
+    private long ocuparTodas(VistaReservas vista) {
+        List<String> errores = new ArrayList<>();
+        BitSet rechazadas = new BitSet();
+        int aplicadas = 0;
+        try {
+            for (; aplicadas < vista.size(); aplicadas++) {
+                int codigo = vista.codigoTipo(aplicadas);
+                int diaInicio = vista.diaEpoch(aplicadas);
+                int dias = vista.dias(aplicadas);
+                if (disponibilidad.hayDisponibilidad(codigo, diaInicio, dias, 1)) {
+                    disponibilidad.ocupar(codigo, diaInicio, dias, 1);
+                } else {
+                    rechazadas.set(aplicadas);
+                    errores.add("reserva " + (aplicadas + 1) + ": no hay habitaciones " + vista.tipoHabitacion(aplicadas)
+                            + " disponibles desde el " + LocalDate.ofEpochDay(diaInicio) + " por " + dias + " días");
+                }
+            }
+            if (!errores.isEmpty()) {
+                throw new SinDisponibilidadException(describirErrores("reservas sin disponibilidad", errores));
+            }
+            return 0;
+        } catch (RuntimeException e) {
+            for (int i = 0; i < aplicadas; i++) {
+                if (!rechazadas.get(i)) {
+                    disponibilidad.ocupar(vista.codigoTipo(i), vista.diaEpoch(i), vista.dias(i), -1);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Asocia al hotel el histórico de meses archivados. Las reservas de esos meses no
+     * están en el hotel; sus ingresos y ocupación se leen del histórico cuando una
+     * consulta los necesita, y no se admiten altas que empiecen en ellos.
+     *
+     * @param historico el histórico de reservas, o null para no usar ninguno
+     */
+    void usarHistorico(HistoricoReservas historico) {
+        candado.writeLock().lock();
+        try {
+            this.historico = historico;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void verificarNoArchivada(int diaInicio) {
+        if (historico != null && historico.contieneDia(diaInicio)) {
+            throw new IllegalArgumentException("El mes de " + LocalDate.ofEpochDay(diaInicio) + " está archivado");
+        }
+    }
+
+    /**
+     * Lee los meses archivados que pueden tener estadías en las noches de un rango.
+     * Las estadías archivadas terminan todas antes de la ventana activa, así que solo
+     * hace falta leerlos si el rango empieza antes de ella.
+     *
+     * @param primeraNoche la primera noche del rango, como día desde la época
+     * @param fin el día siguiente a la última noche del rango
+     */
+    private void leerArchivadosAntesDe(int primeraNoche, int fin) {
+        HistoricoReservas historico = this.historico;
+        if (historico != null && primeraNoche < historico.getPrimerDiaActivo()) {
+            leerArchivados(Integer.MIN_VALUE, Calendario.claveMes(Math.max(fin - 1, primeraNoche)));
+        }
+    }
+
+    /**
+     * Lee del histórico los meses archivados de un rango que todavía no se leyeron y
+     * suma sus reservas al cubo de ingresos y a la disponibilidad, sin guardar las filas.
+     * Los archivos se leen sin candado; solo la suma se hace con el de escritura, y un
+     * mes que otro hilo sumó mientras tanto no se vuelve a sumar.
+     *
+     * @throws UncheckedIOException si no se puede leer el archivo de algún mes
+     */
+    private void leerArchivados(int desde, int hasta) {
+        HistoricoReservas historico = this.historico;
+        if (historico == null || !historico.hayPendientes(desde, hasta)) {
+            return;
+        }
+        for (int mes : historico.pendientes(desde, hasta)) {
+            TablaReservas reservas;
+            try {
+                reservas = historico.leerMes(mes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo leer el mes archivado " + mes, e);
+            }
+            reservas.calcularCostos(motorTarifas);
+            VistaReservas vista = reservas.vista();
+            CuboIngresos cuboMes = CuboIngresos.convieneConstruir(vista) ? CuboIngresos.construir(vista) : null;
+            candado.writeLock().lock();
+            try {
+                if (!historico.marcarLeido(mes)) {
+                    continue;
+                }
+                sumarAlCubo(vista, cuboMes);
+                for (int i = 0; i < vista.size(); i++) {
+                    disponibilidad.ocupar(vista.codigoTipo(i), vista.diaEpoch(i), vista.dias(i), 1);
+                }
+                cache.invalidarTodo();
+            } finally {
+                candado.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Calcula el costo de una reserva con el motor de tarifas del hotel, que es el
+     * costo con que queda registrada al agregarla.
+     *
+     * @param reserva la reserva a cotizar
+     * @return el costo total de la reserva
+     * @throws IllegalArgumentException si el tipo de habitación no es conocido
+     */
+    public double calcularCosto(Reserva reserva) {
+        int codigo = reserva.getCodigoTipo();
+        if (codigo < 0) {
+            throw new IllegalArgumentException("Tipo de habitación desconocido: " + reserva.getTipoHabitacion());
+        }
+        return motorTarifas.costoCentavos(codigo, reserva.getDias(), reserva.getPersonas()) / 100.0;
+    }
+
+    /**
+     * Indica si se pueden reservar N habitaciones de un tipo en todas las noches de
+     * un rango de fechas.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @param fechaInicio la fecha de la primera noche
+     * @param dias el número de noches
+     * @param habitaciones el número de habitaciones que se quieren reservar
+     * @return true si quedan al menos esas habitaciones libres en todas las noches
+     * @throws IllegalArgumentException si el tipo no existe o las fechas están fuera de rango
+     */
+    public boolean hayDisponibilidad(String tipo, LocalDate fechaInicio, int dias, int habitaciones) {
+        int codigo = RegistroTiposHabitacion.codigoDe(tipo);
+        if (codigo < 0) {
+            throw new IllegalArgumentException("Tipo de habitación desconocido: " + tipo);
+        }
+        leerArchivadosAntesDe((int) fechaInicio.toEpochDay(), (int) fechaInicio.toEpochDay() + dias);
+        candado.readLock().lock();
+        try {
+            return disponibilidad.hayDisponibilidad(codigo, (int) fechaInicio.toEpochDay(), dias, habitaciones);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Calcula la ocupación de cada tipo de habitación entre dos fechas, ambas incluidas.
+     * Las noches ocupadas se obtienen de los contadores diarios de disponibilidad,
+     * sin recorrer las reservas.
+     *
+     * @param desde la primera noche del rango
+     * @param hasta la última noche del rango
+     * @return la ocupación por tipo de habitación en el rango
+     * @throws IllegalArgumentException si hasta es anterior a desde
+     */
+    public OcupacionHotel calcularOcupacion(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("Rango de fechas no válido: " + desde + " a " + hasta);
+        }
+        int inicio = (int) desde.toEpochDay();
+        int fin = (int) hasta.toEpochDay();
+        leerArchivadosAntesDe(inicio, fin + 1);
+        return (OcupacionHotel) consultar(new ClaveConsulta(ClaveConsulta.OCUPACION, -1, inicio, fin), clave -> {
+            long[] noches = new long[RegistroTiposHabitacion.cantidad()];
+            int[] inventario = new int[noches.length];
+            for (int codigo = 0; codigo < noches.length; codigo++) {
+                noches[codigo] = disponibilidad.nochesOcupadas(codigo, inicio, fin + 1);
+                inventario[codigo] = disponibilidad.inventario(codigo);
+            }
+            return new OcupacionHotel(desde, hasta, noches, inventario);
+        });
+    }
+
+    /**
+     * Responde una consulta desde la cache o, si no está, la calcula y la guarda.
+     * Todo se hace con el candado de lectura tomado, de modo que un alta no puede
+     * invalidar la cache entre el cálculo y el guardado de un resultado.
+     */
+    private Object consultar(ClaveConsulta clave, Function<ClaveConsulta, Object> calcular) {
+        candado.readLock().lock();
+        try {
+            return cache.obtener(clave, calcular);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta todos los resultados de la cache de consultas, por ejemplo para medir
+     * cuánto cuesta una consulta que no está guardada.
+     */
+    void vaciarCache() {
+        cache.invalidarTodo();
+    }
+
+    /**
+     * Obtiene los contadores de la cache de consultas de ingresos y ocupación.
+     *
+     * @return los aciertos, fallos, desalojos e invalidaciones de la cache
+     */
+    public CacheConsultas.Contadores obtenerContadoresCache() {
+        return cache.contadores();
+    }
+
+    /**
+     * Obtiene la lista de reservas activas en el hotel.
+     * La lista es una vista de solo lectura que no cambia aunque después se agreguen
+     * reservas; sus columnas también pueden leerse sin construir cada reserva.
+     *
+     * @return una vista de las reservas activas
+     */
+    public VistaReservas obtenerReservasActivas() {
+        candado.readLock().lock();
+        try {
+            return tabla.vista();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lista una página de reservas del hotel, en el orden en que se agregaron.
+     *
+     * @param cursor la posición desde la que se lista: 0 para la primera página o el
+     *               cursor devuelto por {@link PaginaReservas#getSiguiente()}
+     * @param tamaño el número máximo de reservas de la página
+     * @return la página de reservas
+     * @throws IllegalArgumentException si el cursor es negativo o el tamaño no es positivo
+     */
+    public PaginaReservas listarReservas(int cursor, int tamaño) {
+        return listarReservas(cursor, tamaño, null, null, null);
+    }
+
+    /**
+     * Lista una página de las reservas de un tipo de habitación cuya estadía toca un rango
+     * de fechas, en el orden en que se agregaron. Las columnas se recorren desde el cursor
+     * sin construir ninguna reserva, hasta llenar la página. Si el rango de fechas es
+     * estrecho, en lugar de recorrer la tabla se buscan en el índice por fecha solo las
+     * reservas que pueden tocarlo.
+     *
+     * @param cursor la posición desde la que se lista: 0 para la primera página o el
+     *               cursor devuelto por {@link PaginaReservas#getSiguiente()}
+     * @param tamaño el número máximo de reservas de la página
+     * @param tipo el tipo de habitación, o null para todos
+     * @param desde la primera noche del rango, o null para no limitarlo
+     * @param hasta la última noche del rango, o null para no limitarlo
+     * @return la página de reservas
+     * @throws IllegalArgumentException si el cursor es negativo, el tamaño no es positivo
+     *                                  o el tipo no es conocido
+     */
+    public PaginaReservas listarReservas(int cursor, int tamaño, String tipo, LocalDate desde, LocalDate hasta) {
+        if (cursor < 0 || tamaño < 1) {
+            throw new IllegalArgumentException("Cursor o tamaño de página no válidos: " + cursor + ", " + tamaño);
+        }
+        int codigo = tipo == null ? -1 : RegistroTiposHabitacion.codigoDe(tipo);
+        if (tipo != null && codigo < 0) {
+            throw new IllegalArgumentException("Tipo de habitación desconocido: " + tipo);
+        }
+        long primera = desde == null ? Long.MIN_VALUE : desde.toEpochDay();
+        long ultima = hasta == null ? Long.MAX_VALUE : hasta.toEpochDay();
+
+        VistaReservas vista = obtenerReservasActivas();
+        if (desde != null || hasta != null) {
+            IndiceReservas.Orden orden = indice.ordenar(vista);
+            int primeraCandidata = desde == null ? 0 : orden.posicion(primera - orden.maximoDias() + 1);
+            int finCandidatas = hasta == null ? orden.filasCubiertas() : orden.posicion(ultima + 1);
+            // Recorrer la tabla desde el cursor cuesta del orden de tamaño * restantes / candidatas
+            // filas, y buscar en el índice del orden de las candidatas: se elige lo más barato
+            long candidatas = finCandidatas - primeraCandidata;
+            if (candidatas * candidatas <= (long) tamaño * Math.max(vista.size() - cursor, 0)) {
+                return listarPorFecha(vista, orden, primeraCandidata, finCandidatas,
+                        cursor, tamaño, codigo, primera, ultima);
+            }
+        }
+
+        int[] filas = new int[Math.min(tamaño, Math.max(0, vista.size() - cursor))];
+        int encontradas = 0;
+        int i = cursor;
+        for (; i < vista.size() && encontradas < filas.length; i++) {
+            if (coincide(vista, i, codigo, primera, ultima)) {
+                filas[encontradas++] = i;
+            }
+        }
+        return new PaginaReservas(vista, Arrays.copyOf(filas, encontradas), i < vista.size() ? i : -1);
+    }
+
+    /**
+     * Lista una página buscando en el índice por fecha. Las candidatas del orden se
+     * filtran con los datos que guarda el propio índice y se ordenan por fila; las filas que el orden todavía no cubre se
+     * recorren después, ya que todas son posteriores.
+     */
+    private static PaginaReservas listarPorFecha(VistaReservas vista, IndiceReservas.Orden orden,
+            int primeraCandidata, int finCandidatas, int cursor, int tamaño, int codigo, long primera, long ultima) {
+        int cubiertas = Math.min(orden.filasCubiertas(), vista.size());
+        int[] filas = new int[16];
+        int encontradas = 0;
+        for (int p = primeraCandidata; p < finCandidatas; p++) {
+            int fila = orden.fila(p);
+            if (fila >= cursor && fila < cubiertas && orden.ultimaNoche(p) >= primera
+                    && (codigo < 0 || orden.codigoTipo(p) == codigo)) {
+                if (encontradas == filas.length) {
+                    filas = Arrays.copyOf(filas, encontradas * 2);
+                }
+                filas[encontradas++] = fila;
+            }
+        }
+        Arrays.sort(filas, 0, encontradas);
+        for (int fila = Math.max(cursor, cubiertas); fila < vista.size() && encontradas <= tamaño; fila++) {
+            if (coincide(vista, fila, codigo, primera, ultima)) {
+                if (encontradas == filas.length) {
+                    filas = Arrays.copyOf(filas, encontradas * 2);
+                }
+                filas[encontradas++] = fila;
+            }
+        }
+        int[] pagina = Arrays.copyOf(filas, Math.min(encontradas, tamaño));
+        return new PaginaReservas(vista, pagina, encontradas > tamaño ? pagina[tamaño - 1] + 1 : -1);
+    }
+
+    private static boolean coincide(VistaReservas vista, int fila, int codigo, long primera, long ultima) {
+        if (codigo >= 0 && vista.codigoTipo(fila) != codigo) {
+            return false;
+        }
+        int inicio = vista.diaEpoch(fila);
+        int fin = inicio + Math.max(vista.dias(fila), 1) - 1;
+        return inicio <= ultima && fin >= primera;
+    }
+
+    /**
+     * Calcula los ingresos de un tipo específico de habitación en un mes y año dados.
+     * El valor se obtiene de la celda del cubo de ingresos, sin recorrer las reservas.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @param mes el mes en el que se desea calcular los ingresos (1 a 12)
+     * @param año el año en el que se desea calcular los ingresos
+     * @return los ingresos totales generados por el tipo de habitación en el mes y año indicados
+     * @throws IllegalArgumentException si el mes no está entre 1 y 12
+     */
+    public double calcularIngresosPorTipoYMes(String tipo, int mes, int año) {
+        long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.INGRESOS_TIPO_MES);
+        try {
+            CuboIngresos.verificarMes(mes);
+            int codigo = RegistroTiposHabitacion.codigoDe(tipo);
+            if (codigo < 0) {
+                return 0;
+            }
+            int clave = IndiceReservas.claveMes(año, mes);
+            leerArchivados(clave, clave);
+            return (Double) consultar(new ClaveConsulta(ClaveConsulta.INGRESOS, codigo, clave, clave),
+                    c -> cubo.ingresosCentavos(codigo, mes, año) / 100.0);
+        } catch (RuntimeException e) {
+            MetricasHotel.registrarFallo(MetricasHotel.Operacion.INGRESOS_TIPO_MES, medicion);
+            throw e;
+        } finally {
+            MetricasHotel.registrar(MetricasHotel.Operacion.INGRESOS_TIPO_MES, medicion);
+        }
+    }
+
+    /**
+     * Calcula en una sola pasada los ingresos de todos los tipos de habitación
+     * entre dos meses, ambos incluidos. Sirve tanto para un mes como para un año
+     * completo o cualquier otro rango de meses.
+     *
+     * @param mesDesde el mes inicial del rango (1 a 12)
+     * @param añoDesde el año inicial del rango
+     * @param mesHasta el mes final del rango (1 a 12)
+     * @param añoHasta el año final del rango
+     * @return los ingresos agregados por tipo de habitación
+     */
+    public IngresosPorTipo calcularIngresosPorTipo(int mesDesde, int añoDesde, int mesHasta, int añoHasta) {
+        return consultarAgregado(mesDesde, añoDesde, mesHasta, añoHasta).getIngresosPorTipo();
+    }
+
+    /**
+     * Consulta el cubo de ingresos entre dos meses, ambos incluidos: número de reservas,
+     * noches, personas e ingresos de cada tipo de habitación. El costo depende solo del
+     * número de meses del rango, no del número de reservas.
+     *
+     * @param mesDesde el mes inicial del rango (1 a 12)
+     * @param añoDesde el año inicial del rango
+     * @param mesHasta el mes final del rango (1 a 12)
+     * @param añoHasta el año final del rango
+     * @return el agregado por tipo de habitación del rango
+     * @throws IllegalArgumentException si alguno de los meses no está entre 1 y 12
+     */
+    public AgregadoReservas consultarAgregado(int mesDesde, int añoDesde, int mesHasta, int añoHasta) {
+        CuboIngresos.verificarMes(mesDesde);
+        CuboIngresos.verificarMes(mesHasta);
+        ClaveConsulta clave = new ClaveConsulta(ClaveConsulta.AGREGADO, -1,
+                IndiceReservas.claveMes(añoDesde, mesDesde), IndiceReservas.claveMes(añoHasta, mesHasta));
+        leerArchivados(clave.desde, clave.hasta);
+        return (AgregadoReservas) consultar(clave, c -> cubo.consultar(mesDesde, añoDesde, mesHasta, añoHasta));
+    }
+
+    /**
+     * Consulta el cubo de ingresos de un trimestre.
+     *
+     * @param trimestre el trimestre (1 a 4)
+     * @param año el año
+     * @return el agregado por tipo de habitación del trimestre
+     */
+    public AgregadoReservas consultarTrimestre(int trimestre, int año) {
+        if (trimestre < 1 || trimestre > 4) {
+            throw new IllegalArgumentException("Trimestre no válido: " + trimestre);
+        }
+        return consultarAgregado(trimestre * 3 - 2, año, trimestre * 3, año);
+    }
+
+    /**
+     * Consulta el cubo de ingresos desde enero hasta un mes del mismo año, ambos incluidos.
+     *
+     * @param mes el último mes del rango (1 a 12)
+     * @param año el año
+     * @return el agregado por tipo de habitación de lo que va del año
+     */
+    public AgregadoReservas consultarAñoHastaMes(int mes, int año) {
+        return consultarAgregado(1, año, mes, año);
+    }
+
+    /**
+     * Calcula en una sola pasada los ingresos de todos los tipos de habitación
+     * en un mes y año dados.
+     *
+     * @param mes el mes a consultar (1 a 12)
+     * @param año el año a consultar
+     * @return los ingresos agregados por tipo de habitación
+     */
+    public IngresosPorTipo calcularIngresosPorTipo(int mes, int año) {
+        return calcularIngresosPorTipo(mes, año, mes, año);
+    }
+
+    /**
+     * Determina el tipo de habitación que generó más ingresos en un mes y año específicos.
+     *
+     * @param mes el mes en el que se desea encontrar el tipo de habitación con mayor ingresos (1 a 12)
+     * @param año el año en el que se desea encontrar el tipo de habitación con mayor ingresos
+     * @return el tipo de habitación registrado con mayores ingresos, o null si no hubo ingresos en el mes
+     * @see IngresosPorTipo#getTipoMayorIngresos()
+     */
+    public String tipoHabitacionMayorIngresosMes(int mes, int año) {
+        return calcularIngresosPorTipo(mes, año).getTipoMayorIngresos();
+    }
+
+    /**
+     * Clave de una consulta guardada en la cache. Según la clase de consulta, el rango
+     * son meses con el formato aaaamm (ingresos) o días desde la época (ocupación),
+     * ambos extremos incluidos.
+     *
+     * Cada clave se etiqueta en la cache con los pares (tipo, mes) de los que depende,
+     * para que un alta solo revise las consultas de su tipo y de los meses de su estadía.
+     */
+    private static final class ClaveConsulta {
+        static final int INGRESOS = 0;
+        static final int AGREGADO = 1;
+        static final int OCUPACION = 2;
+        private static final int MAXIMO_ETIQUETAS = 64;
+
+        private final int clase;
+        private final int codigoTipo;
+        private final int desde;
+        private final int hasta;
+
+        ClaveConsulta(int clase, int codigoTipo, int desde, int hasta) {
+            this.clase = clase;
+            this.codigoTipo = codigoTipo;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        /**
+         * Obtiene las etiquetas (tipo, mes) de las que depende el resultado de una consulta.
+         *
+         * @param clave la clave de la consulta
+         * @return las etiquetas, o null si son demasiadas y la consulta debe revisarse en
+         *         cada alta
+         */
+        static long[] etiquetas(ClaveConsulta clave) {
+            if (clave.clase == OCUPACION) {
+                return etiquetas(-1, Calendario.claveMes(clave.desde), Calendario.claveMes(clave.hasta));
+            }
+            return etiquetas(clave.codigoTipo, clave.desde, clave.hasta);
+        }
+
+        /**
+         * Obtiene las etiquetas de un tipo de habitación, o de todos, en un rango de meses.
+         *
+         * @param codigo el código del tipo, o -1 para todos los tipos
+         * @param mesDesde el primer mes del rango, con el formato aaaamm
+         * @param mesHasta el último mes del rango, con el formato aaaamm
+         * @return las etiquetas, o null si superan {@value #MAXIMO_ETIQUETAS}
+         */
+        static long[] etiquetas(int codigo, int mesDesde, int mesHasta) {
+            int tipos = codigo < 0 ? RegistroTiposHabitacion.cantidad() : 1;
+            long meses = (long) (mesHasta / 100 - mesDesde / 100) * 12 + mesHasta % 100 - mesDesde % 100 + 1;
+            if (meses < 1 || meses * tipos > MAXIMO_ETIQUETAS) {
+                return null;
+            }
+            long[] etiquetas = new long[(int) meses * tipos];
+            int i = 0;
+            for (int mes = mesDesde; mes <= mesHasta; mes = mes % 100 == 12 ? mes + 89 : mes + 1) {
+                for (int t = 0; t < tipos; t++) {
+                    etiquetas[i++] = ((long) (codigo < 0 ? t : codigo) << 32) | mes;
+                }
+            }
+            return etiquetas;
+        }
+
+        /**
+         * Indica si el resultado de esta consulta cambia al agregar una reserva.
+         *
+         * @param codigo el código del tipo de habitación de la reserva
+         * @param mes el mes de inicio de la reserva, con el formato aaaamm
+         * @param diaInicio la primera noche de la reserva, como día desde la época
+         * @param dias el número de noches de la reserva
+         * @return true si la reserva afecta al resultado
+         */
+        boolean afectadaPor(int codigo, int mes, int diaInicio, int dias) {
+            if (codigoTipo >= 0 && codigoTipo != codigo) {
+                return false;
+            }
+            if (clase == OCUPACION) {
+                return dias > 0 && diaInicio <= hasta && diaInicio + dias - 1 >= desde;
+            }
+            return desde <= mes && mes <= hasta;
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            if (!(otro instanceof ClaveConsulta)) {
+                return false;
+            }
+            ClaveConsulta clave = (ClaveConsulta) otro;
+            return clase == clave.clase && codigoTipo == clave.codigoTipo
+                    && desde == clave.desde && hasta == clave.hasta;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((clase * 31 + codigoTipo) * 31 + desde) * 31 + hasta;
+        }
+    }
+}
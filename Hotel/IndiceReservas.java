@@ -0,0 +1,218 @@
+package Hotel;
+
+import java.util.Arrays;
+
+/**
+ * La clase IndiceReservas es un índice secundario de las reservas del hotel, ordenado
+ * por fecha de inicio. Cada fila de la tabla se guarda como una clave long con el día
+ * de inicio en los 32 bits altos y la fila en los bajos, así que ordenar las claves
+ * ordena por fecha y, en la misma fecha, por orden de alta; las reservas que empiezan
+ * en un rango de días se encuentran con dos búsquedas binarias. Junto a cada clave se
+ * guardan la última noche y el tipo de habitación de la reserva, para filtrar las
+ * candidatas recorriendo el índice en orden, sin saltar de una fila a otra de la tabla.
+ *
+ * El índice se actualiza de forma perezosa: cubre las primeras filas de la tabla, y las
+ * agregadas después se recorren aparte hasta que son suficientes para mezclarlas con
+ * las ya ordenadas. Cada mezcla crea un {@link Orden} nuevo, por lo que una consulta que
+ * ya obtuvo el anterior nunca lo ve a medio actualizar.
+ */
+class IndiceReservas {
+    private static final int FILAS_NUEVAS_MINIMAS = 4096;
+    private static final int FRACCION_FILAS_NUEVAS = 16;
+    private static final int DIAS_MAXIMOS_POR_CONTEO = 1 << 20;
+
+    private Orden orden;
+
+    /**
+     * Constructor de la clase IndiceReservas.
+     * Inicializa el índice vacío.
+     */
+    public IndiceReservas() {
+        orden = new Orden(new long[0], new int[0], new byte[0], 1);
+    }
+
+    /**
+     * Calcula la clave compacta de un mes con el formato aaaamm.
+     *
+     * @param año el año
+     * @param mes el mes (1 a 12)
+     * @return la clave del mes, por ejemplo 202403 para marzo de 2024
+     */
+    public static int claveMes(int año, int mes) {
+        return año * 100 + mes;
+    }
+
+    /**
+     * Obtiene el orden por fecha de las filas de una vista de la tabla. Si las filas de
+     * la vista que el orden todavía no cubre son muchas, antes las ordena y las mezcla;
+     * si son pocas, quedan para que quien consulta las recorra una por una.
+     *
+     * @param vista la vista de la tabla del hotel
+     * @return el orden por fecha de las primeras {@link Orden#filasCubiertas()} filas
+     */
+    public synchronized Orden ordenar(VistaReservas vista) {
+        int cubiertas = orden.filasCubiertas();
+        int nuevas = vista.size() - cubiertas;
+        if (nuevas >= Math.max(FILAS_NUEVAS_MINIMAS, cubiertas / FRACCION_FILAS_NUEVAS)) {
+            orden = orden.mezclar(vista, cubiertas);
+        }
+        return orden;
+    }
+
+    /**
+     * Orden inmutable por fecha de inicio de las primeras filas de la tabla.
+     */
+    static final class Orden {
+        private final long[] claves;
+        private final int[] ultimasNoches;
+        private final byte[] tipos;
+        private final int maximoDias;
+
+        private Orden(long[] claves, int[] ultimasNoches, byte[] tipos, int maximoDias) {
+            this.claves = claves;
+            this.ultimasNoches = ultimasNoches;
+            this.tipos = tipos;
+            this.maximoDias = maximoDias;
+        }
+
+        /**
+         * Obtiene el número de filas que cubre el orden: todas las de la tabla
+         * anteriores a esta posición, y ninguna posterior.
+         *
+         * @return el número de filas cubiertas
+         */
+        int filasCubiertas() {
+            return claves.length;
+        }
+
+        /**
+         * Obtiene la estadía más larga de las filas cubiertas, que acota cuánto antes de
+         * un rango de fechas puede empezar una reserva que lo toca.
+         *
+         * @return el máximo número de noches de una reserva, al menos 1
+         */
+        int maximoDias() {
+            return maximoDias;
+        }
+
+        /**
+         * Busca la primera posición del orden cuya reserva empieza en un día dado o después.
+         *
+         * @param dia el día, como día desde la época
+         * @return la posición, o {@link #filasCubiertas()} si todas empiezan antes
+         */
+        int posicion(long dia) {
+            if (dia <= Integer.MIN_VALUE) {
+                return 0;
+            }
+            if (dia > Integer.MAX_VALUE) {
+                return claves.length;
+            }
+            long clave = dia << 32;
+            int bajo = 0;
+            int alto = claves.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (claves[medio] < clave) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+
+        /**
+         * Obtiene la fila de la tabla que está en una posición del orden.
+         *
+         * @param posicion la posición en el orden
+         * @return la fila de la tabla
+         */
+        int fila(int posicion) {
+            return (int) claves[posicion];
+        }
+
+        /**
+         * Obtiene la última noche de la reserva que está en una posición del orden.
+         *
+         * @param posicion la posición en el orden
+         * @return la última noche, como día desde la época
+         */
+        int ultimaNoche(int posicion) {
+            return ultimasNoches[posicion];
+        }
+
+        /**
+         * Obtiene el tipo de habitación de la reserva que está en una posición del orden.
+         *
+         * @param posicion la posición en el orden
+         * @return el código del tipo de habitación
+         */
+        int codigoTipo(int posicion) {
+            return tipos[posicion];
+        }
+
+        private Orden mezclar(VistaReservas vista, int desde) {
+            long[] nuevas = ordenarPorDia(vista, desde);
+            int maximo = maximoDias;
+            for (int fila = desde; fila < vista.size(); fila++) {
+                maximo = Math.max(maximo, vista.dias(fila));
+            }
+
+            int total = claves.length + nuevas.length;
+            long[] mezcla = new long[total];
+            int[] noches = new int[total];
+            byte[] codigos = new byte[total];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < total; k++) {
+                if (j == nuevas.length || (i < claves.length && claves[i] < nuevas[j])) {
+                    mezcla[k] = claves[i];
+                    noches[k] = ultimasNoches[i];
+                    codigos[k] = tipos[i++];
+                } else {
+                    int fila = (int) nuevas[j];
+                    mezcla[k] = nuevas[j++];
+                    noches[k] = vista.diaEpoch(fila) + Math.max(vista.dias(fila), 1) - 1;
+                    codigos[k] = (byte) vista.codigoTipo(fila);
+                }
+            }
+            return new Orden(mezcla, noches, codigos, maximo);
+        }
+
+        /**
+         * Ordena las claves de las filas de una vista a partir de una dada. Como las fechas
+         * admitidas abarcan pocos días, se cuentan las filas de cada día y cada una se
+         * coloca directamente en su lugar, sin comparar claves; recorrer las filas en orden
+         * deja las del mismo día ordenadas por fila.
+         */
+        private static long[] ordenarPorDia(VistaReservas vista, int desde) {
+            long[] claves = new long[vista.size() - desde];
+            int primerDia = Integer.MAX_VALUE;
+            int ultimoDia = Integer.MIN_VALUE;
+            for (int fila = desde; fila < vista.size(); fila++) {
+                primerDia = Math.min(primerDia, vista.diaEpoch(fila));
+                ultimoDia = Math.max(ultimoDia, vista.diaEpoch(fila));
+            }
+            if (claves.length == 0 || (long) ultimoDia - primerDia >= DIAS_MAXIMOS_POR_CONTEO) {
+                for (int i = 0; i < claves.length; i++) {
+                    claves[i] = ((long) vista.diaEpoch(desde + i) << 32) | (desde + i);
+                }
+                Arrays.sort(claves);
+                return claves;
+            }
+            int[] posiciones = new int[ultimoDia - primerDia + 2];
+            for (int fila = desde; fila < vista.size(); fila++) {
+                posiciones[vista.diaEpoch(fila) - primerDia + 1]++;
+            }
+            for (int d = 1; d < posiciones.length; d++) {
+                posiciones[d] += posiciones[d - 1];
+            }
+            for (int fila = desde; fila < vista.size(); fila++) {
+                int dia = vista.diaEpoch(fila);
+                claves[posiciones[dia - primerDia]++] = ((long) dia << 32) | fila;
+            }
+            return claves;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package Hotel;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * La clase IngresosPorTipo contiene el resultado de una consulta de ingresos
+ * agregados por tipo de habitación en un rango de meses.
+ * Se obtiene en una sola pasada y puede reutilizarse para mostrar el detalle
+ * por tipo y para determinar el tipo con mayores ingresos.
+ */
+class IngresosPorTipo {
+    private final long[] ingresos;
+
+    /**
+     * Constructor de la clase IngresosPorTipo.
+     * Inicializa en cero los ingresos de todos los tipos de habitación registrados,
+     * indexados por su código.
+     */
+    public IngresosPorTipo() {
+        ingresos = new long[RegistroTiposHabitacion.cantidad()];
+    }
+
+    /**
+     * Suma un importe a los ingresos de un tipo de habitación.
+     *
+     * @param codigo el código del tipo de habitación
+     * @param centavos el importe a sumar, en centavos
+     */
+    void sumar(int codigo, long centavos) {
+        ingresos[codigo] += centavos;
+    }
+
+    /**
+     * Obtiene los ingresos de un tipo de habitación.
+     *
+     * @param tipo el nombre del tipo de habitación
+     * @return los ingresos del tipo indicado, o 0 si no tuvo reservas
+     */
+    public double getIngresos(String tipo) {
+        return getIngresosCentavos(tipo) / 100.0;
+    }
+
+    /**
+     * Obtiene los ingresos exactos de un tipo de habitación, en centavos.
+     *
+     * @param tipo el nombre del tipo de habitación
+     * @return los ingresos del tipo indicado en centavos, o 0 si no tuvo reservas
+     */
+    public long getIngresosCentavos(String tipo) {
+        int codigo = RegistroTiposHabitacion.codigoDe(tipo);
+        return codigo >= 0 && codigo < ingresos.length ? ingresos[codigo] : 0L;
+    }
+
+    /**
+     * Obtiene los ingresos exactos de un tipo de habitación a partir de su código.
+     *
+     * @param codigo el código del tipo de habitación
+     * @return los ingresos del tipo indicado en centavos
+     */
+    public long getIngresosCentavos(int codigo) {
+        return ingresos[codigo];
+    }
+
+    /**
+     * Obtiene los ingresos totales de todos los tipos de habitación.
+     *
+     * @return la suma de los ingresos de todos los tipos
+     */
+    public double getTotal() {
+        long total = 0;
+        for (long centavos : ingresos) {
+            total += centavos;
+        }
+        return total / 100.0;
+    }
+
+    /**
+     * Determina el tipo de habitación con mayores ingresos.
+     * En caso de empate se elige el primer tipo por orden alfabético, para que el
+     * resultado no dependa del orden en que se registraron los tipos.
+     *
+     * @return el tipo de habitación con mayores ingresos, o null si ningún tipo tiene ingresos
+     */
+    public String getTipoMayorIngresos() {
+        String mayor = null;
+        long ingresosMayor = 0;
+        for (int codigo = 0; codigo < ingresos.length; codigo++) {
+            if (ingresos[codigo] <= 0 || ingresos[codigo] < ingresosMayor) {
+                continue;
+            }
+            String tipo = RegistroTiposHabitacion.nombre(codigo);
+            if (ingresos[codigo] > ingresosMayor || tipo.compareTo(mayor) < 0) {
+                mayor = tipo;
+                ingresosMayor = ingresos[codigo];
+            }
+        }
+        return mayor;
+    }
+
+    /**
+     * Obtiene los ingresos de todos los tipos de habitación, en centavos.
+     *
+     * @return un mapa de solo lectura de tipo de habitación a ingresos en centavos,
+     *         en el orden de registro de los tipos
+     */
+    public Map<String, Long> getIngresosCentavosPorTipo() {
+        Map<String, Long> porTipo = new LinkedHashMap<>();
+        for (int codigo = 0; codigo < ingresos.length; codigo++) {
+            porTipo.put(RegistroTiposHabitacion.nombre(codigo), ingresos[codigo]);
+        }
+        return Collections.unmodifiableMap(porTipo);
+    }
+}
@@ -0,0 +1,230 @@
+package Hotel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * La clase InstantaneaBinaria lee y escribe reservas en un formato binario por columnas.
+ * En lugar de repetir en cada fila el nombre del tipo, la fecha como texto y el costo
+ * calculado, el archivo guarda cuatro columnas contiguas:
+ * <ul>
+ *     <li>el código del tipo de habitación (un byte por reserva),</li>
+ *     <li>la fecha de inicio como día desde la época (un int por reserva),</li>
+ *     <li>el número de días (un short por reserva),</li>
+ *     <li>el número de personas (un short por reserva).</li>
+ * </ul>
+ * El archivo se proyecta en memoria y sus valores se leen directamente de las columnas,
+ * sin construir un objeto por reserva.
+ *
+ * Los códigos de tipo dependen del orden en que se registraron los tipos en el proceso
+ * que escribió el archivo, así que la cabecera guarda también el nombre de cada código.
+ * Al leer, cada código se traduce al del tipo con ese nombre en el proceso actual; los
+ * tipos que ya no están registrados se leen con el código -1.
+ */
+class InstantaneaBinaria {
+    private static final int MAGICO = 0x48525356;
+    private static final int VERSION = 2;
+    private static final int TAMAÑO_CABECERA = 16;
+
+    private final ByteBuffer buffer;
+    private final int tamaño;
+    private final int[] codigos;
+    private final int inicioCodigos;
+    private final int inicioFechas;
+    private final int inicioDias;
+    private final int inicioPersonas;
+
+    private InstantaneaBinaria(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < TAMAÑO_CABECERA || buffer.getInt(0) != MAGICO) {
+            throw new IOException("El archivo no es una instantánea binaria de reservas");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Versión de instantánea no soportada: " + buffer.getInt(4)
+                    + "; vuelva a generarla desde el archivo de reservas en texto");
+        }
+        tamaño = buffer.getInt(8);
+        int tipos = buffer.getInt(12);
+        if (tipos < 0 || tipos > RegistroTiposHabitacion.MAXIMO_TIPOS) {
+            throw new IOException("La instantánea binaria está dañada: " + tipos + " tipos de habitación");
+        }
+        codigos = new int[tipos];
+        inicioCodigos = alinear(leerTipos(buffer, codigos));
+        inicioFechas = alinear(inicioCodigos + tamaño);
+        inicioDias = inicioFechas + 4 * tamaño;
+        inicioPersonas = inicioDias + 2 * tamaño;
+        if (tamaño < 0 || buffer.limit() < (long) inicioPersonas + 2L * tamaño) {
+            throw new IOException("La instantánea binaria está incompleta");
+        }
+    }
+
+    /**
+     * Lee el diccionario de tipos de la cabecera y traduce cada código del archivo al
+     * código actual del tipo con ese nombre, o -1 si el tipo ya no existe.
+     *
+     * @param traduccion el arreglo a llenar, con un elemento por tipo del diccionario
+     * @return la posición siguiente al diccionario
+     * @throws IOException si el diccionario está incompleto
+     */
+    private static int leerTipos(ByteBuffer buffer, int[] traduccion) throws IOException {
+        int posicion = TAMAÑO_CABECERA;
+        for (int codigo = 0; codigo < traduccion.length; codigo++) {
+            if (posicion + 2 > buffer.limit()) {
+                throw new IOException("La instantánea binaria está incompleta");
+            }
+            int longitud = buffer.getShort(posicion) & 0xFFFF;
+            posicion += 2;
+            if (posicion + longitud > buffer.limit()) {
+                throw new IOException("La instantánea binaria está incompleta");
+            }
+            byte[] nombre = new byte[longitud];
+            buffer.get(posicion, nombre);
+            posicion += longitud;
+            traduccion[codigo] = RegistroTiposHabitacion.codigoDe(new String(nombre, StandardCharsets.UTF_8));
+        }
+        return posicion;
+    }
+
+    /**
+     * Abre una instantánea binaria proyectándola en memoria.
+     *
+     * @param archivo el nombre o ruta del archivo binario
+     * @return la instantánea abierta
+     * @throws IOException si ocurre un error al leer el archivo o su formato no es válido
+     */
+    public static InstantaneaBinaria abrir(String archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+            return new InstantaneaBinaria(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /**
+     * Escribe una lista de reservas en formato binario por columnas.
+     *
+     * @param reservas la lista de reservas a guardar
+     * @param archivo el nombre o ruta del archivo binario
+     * @throws IOException si ocurre un error al escribir en el archivo
+     * @throws IllegalArgumentException si los días o las personas de una reserva no caben en un short
+     */
+    public static void guardar(List<Reserva> reservas, String archivo) throws IOException {
+        VistaReservas vista = reservas instanceof VistaReservas
+                ? (VistaReservas) reservas
+                : TablaReservas.de(reservas).vista();
+        int n = vista.size();
+        List<String> tipos = RegistroTiposHabitacion.nombres();
+        byte[][] nombres = new byte[tipos.size()][];
+        int inicioCodigos = TAMAÑO_CABECERA;
+        for (int codigo = 0; codigo < nombres.length; codigo++) {
+            nombres[codigo] = tipos.get(codigo).getBytes(StandardCharsets.UTF_8);
+            inicioCodigos += 2 + nombres[codigo].length;
+        }
+        inicioCodigos = alinear(inicioCodigos);
+        int inicioFechas = alinear(inicioCodigos + n);
+        long tamañoArchivo = (long) inicioFechas + 8L * n;
+        if (tamañoArchivo > Integer.MAX_VALUE) {
+            throw new IOException("Demasiadas reservas para una instantánea binaria: " + n);
+        }
+        ByteBuffer salida = ByteBuffer.allocate((int) tamañoArchivo).order(ByteOrder.LITTLE_ENDIAN);
+        salida.putInt(MAGICO).putInt(VERSION).putInt(n).putInt(nombres.length);
+        for (byte[] nombre : nombres) {
+            salida.putShort((short) nombre.length).put(nombre);
+        }
+        salida.position(inicioCodigos);
+        for (int i = 0; i < n; i++) {
+            salida.put((byte) vista.codigoTipo(i));
+        }
+        salida.position(inicioFechas);
+        for (int i = 0; i < n; i++) {
+            salida.putInt(vista.diaEpoch(i));
+        }
+        for (int i = 0; i < n; i++) {
+            salida.putShort((short) vista.dias(i));
+        }
+        for (int i = 0; i < n; i++) {
+            salida.putShort((short) vista.personas(i));
+        }
+        salida.flip();
+        try (FileChannel canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (salida.hasRemaining()) {
+                canal.write(salida);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de reservas de la instantánea.
+     *
+     * @return el número de reservas
+     */
+    public int tamaño() {
+        return tamaño;
+    }
+
+    /**
+     * Obtiene el código del tipo de habitación de una reserva en el registro actual.
+     *
+     * @param i la posición de la reserva
+     * @return el código del tipo de habitación, o -1 si el tipo ya no está registrado
+     */
+    public int codigoTipo(int i) {
+        int codigo = buffer.get(inicioCodigos + i);
+        return codigo >= 0 && codigo < codigos.length ? codigos[codigo] : -1;
+    }
+
+    /**
+     * Obtiene la fecha de inicio de una reserva como día desde la época (1970-01-01).
+     *
+     * @param i la posición de la reserva
+     * @return el día de inicio desde la época
+     */
+    public int diaEpoch(int i) {
+        return buffer.getInt(inicioFechas + 4 * i);
+    }
+
+    /**
+     * Obtiene el número de días de una reserva.
+     *
+     * @param i la posición de la reserva
+     * @return el número de días
+     */
+    public int dias(int i) {
+        return buffer.getShort(inicioDias + 2 * i);
+    }
+
+    /**
+     * Obtiene el número de personas de una reserva.
+     *
+     * @param i la posición de la reserva
+     * @return el número de personas
+     */
+    public int personas(int i) {
+        return buffer.getShort(inicioPersonas + 2 * i);
+    }
+
+    /**
+     * Construye la reserva de una posición, usando la habitación compartida de su tipo.
+     * La instantánea no guarda costos, así que la reserva no tiene costo hasta que se
+     * agrega a un hotel.
+     *
+     * @param i la posición de la reserva
+     * @return la reserva, o null si el código de tipo no es conocido
+     */
+    public Reserva reserva(int i) {
+        Habitacion habitacion = RegistroTiposHabitacion.porCodigo(codigoTipo(i));
+        if (habitacion == null) {
+            return null;
+        }
+        return new Reserva(habitacion, diaEpoch(i), dias(i), personas(i));
+    }
+
+    private static int alinear(int posicion) {
+        return (posicion + 3) & ~3;
+    }
+}
@@ -1,182 +1,489 @@
-package Hotel;
-// src/Main.java
-// Main.java
-import java.io.IOException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.List;
-import java.util.Scanner;
-
-public class Main {
-    private static Hotel hotel;
-    private static Scanner scanner;
-    private static final String ARCHIVO_RESERVAS = "reservas.csv";
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-    public static void main(String[] args) {
-        hotel = new Hotel();
-        scanner = new Scanner(System.in);
-        cargarReservasGuardadas();
-
-        boolean salir = false;
-        while (!salir) {
-            mostrarMenu();
-            int opcion = leerOpcion();
-
-            switch (opcion) {
-                case 1:
-                    registrarNuevaReserva();
-                    break;
-                case 2:
-                    mostrarReservasActivas();
-                    break;
-                case 3:
-                    mostrarIngresosPorTipoEnMes();
-                    break;
-                case 4:
-                    salir = true;
-                    break;
-                default:
-                    System.out.println("Opción no válida. Por favor, intente de nuevo.");
-            }
-        }
-        scanner.close();
-    }
-
-    private static void mostrarMenu() {
-        System.out.println("\n=== SISTEMA DE RESERVAS DE HOTEL ===");
-        System.out.println("1. Registrar nueva reserva");
-        System.out.println("2. Mostrar reservas activas");
-        System.out.println("3. Ver ingresos por tipo de habitación en un mes");
-        System.out.println("4. Salir");
-        System.out.print("Seleccione una opción: ");
-    }
-
-    private static int leerOpcion() {
-        try {
-            return Integer.parseInt(scanner.nextLine());
-        } catch (NumberFormatException e) {
-            return 0;
-        }
-    }
-
-    private static void registrarNuevaReserva() {
-        System.out.println("\n=== REGISTRO DE NUEVA RESERVA ===");
-
-        // Seleccionar tipo de habitación
-        System.out.println("Seleccione tipo de habitación:");
-        System.out.println("1. Estándar ($50/noche)");
-        System.out.println("2. Ejecutiva ($100/noche + servicios adicionales)");
-        System.out.println("3. Suite Presidencial ($250/noche + servicios adicionales)");
-
-        Habitacion habitacion = null;
-        while (habitacion == null) {
-            int tipoHabitacion = leerOpcion();
-            switch (tipoHabitacion) {
-                case 1:
-                    habitacion = new HabitacionEstandar();
-                    break;
-                case 2:
-                    habitacion = new HabitacionEjecutiva();
-                    break;
-                case 3:
-                    habitacion = new SuitePresidencial();
-                    break;
-                default:
-                    System.out.println("Opción no válida. Por favor, seleccione nuevamente.");
-            }
-        }
-
-        // Leer fecha de inicio
-        LocalDate fechaInicio = null;
-        while (fechaInicio == null) {
-            System.out.print("Ingrese fecha de inicio (dd/MM/yyyy): ");
-            try {
-                String fecha = scanner.nextLine();
-                fechaInicio = LocalDate.parse(fecha, formatter);
-            } catch (DateTimeParseException e) {
-                System.out.println("Formato de fecha inválido. Use dd/MM/yyyy");
-            }
-        }
-
-        // Leer cantidad de días
-        System.out.print("Ingrese cantidad de días: ");
-        int dias = Integer.parseInt(scanner.nextLine());
-
-        // Leer cantidad de personas
-        System.out.print("Ingrese cantidad de personas: ");
-        int personas = Integer.parseInt(scanner.nextLine());
-
-        // Crear y agregar la reserva
-        Reserva reserva = new Reserva(habitacion, fechaInicio, dias, personas);
-        hotel.agregarReserva(reserva);
-
-        // Mostrar costo total
-        System.out.println("\nReserva registrada exitosamente");
-        System.out.printf("Costo total: $%.2f%n", reserva.calcularCostoTotal());
-
-        // Guardar reservas en archivo
-        guardarReservas();
-    }
-
-    private static void mostrarReservasActivas() {
-        System.out.println("\n=== RESERVAS ACTIVAS ===");
-        List<Reserva> reservas = hotel.obtenerReservasActivas();
-        if (reservas.isEmpty()) {
-            System.out.println("No hay reservas activas.");
-            return;
-        }
-
-        for (int i = 0; i < reservas.size(); i++) {
-            Reserva r = reservas.get(i);
-            System.out.printf("%d. Tipo: %s, Fecha: %s, Días: %d, Costo: $%.2f%n",
-                    i + 1,
-                    r.getTipoHabitacion(),
-                    r.getFechaInicio().format(formatter),
-                    r.getDias(),
-                    r.calcularCostoTotal());
-        }
-    }
-
-    private static void mostrarIngresosPorTipoEnMes() {
-        System.out.println("\n=== INGRESOS POR TIPO DE HABITACIÓN ===");
-        System.out.print("Ingrese mes (MM) y año (yyyy) a consultar (MM/yyyy): ");
-
-        try {
-            String[] partes = scanner.nextLine().split("/");
-            int mes = Integer.parseInt(partes[0]);
-            int año = Integer.parseInt(partes[1]);
-
-            double ingresosEstandar = hotel.calcularIngresosPorTipoYMes("Estandar", mes, año);
-            double ingresosEjecutiva = hotel.calcularIngresosPorTipoYMes("Ejecutiva", mes, año);
-            double ingresosSuite = hotel.calcularIngresosPorTipoYMes("Suite Presidencial", mes, año);
-
-            System.out.printf("Habitación Estándar: $%.2f%n", ingresosEstandar);
-            System.out.printf("Habitación Ejecutiva: $%.2f%n", ingresosEjecutiva);
-            System.out.printf("Suite Presidencial: $%.2f%n", ingresosSuite);
-
-            String tipoMayor = hotel.tipoHabitacionMayorIngresosMes(mes, año);
-            System.out.println("\nTipo de habitación con mayores ingresos: " + tipoMayor);
-        } catch (Exception e) {
-            System.out.println("Error al procesar la fecha. Use el formato MM/yyyy");
-        }
-    }
-
-    private static void cargarReservasGuardadas() {
-        try {
-            GestorArchivos.cargarReservas(ARCHIVO_RESERVAS, hotel);
-            System.out.println("Reservas cargadas exitosamente.");
-        } catch (IOException e) {
-            System.out.println("No se encontraron reservas guardadas.");
-        }
-    }
-
-    private static void guardarReservas() {
-        try {
-            GestorArchivos.guardarReservas(hotel.obtenerReservasActivas(), ARCHIVO_RESERVAS);
-        } catch (IOException e) {
-            System.out.println("Error al guardar las reservas: " + e.getMessage());
-        }
-    }
+package Hotel;
+// src/Main.java
+// Main.java
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+public class Main {
+    private static CadenaHoteles cadena;
+    private static CadenaHoteles.Sede sede;
+    private static Hotel hotel;
+    private static Scanner scanner;
+    private static ServicioReservas servicio;
+    private static ServidorReservas servidor;
+    private static final String DIRECTORIO_CADENA = "hoteles";
+    private static final String HOTEL_PRINCIPAL = "principal";
+    private static final int MESES_ACTIVOS = 12;
+    private static final String ARCHIVO_TARIFAS = "tarifas.properties";
+    private static final String ARCHIVO_METRICAS = "metricas.txt";
+    private static final long SEGUNDOS_ENTRE_VOLCADOS = 60;
+    private static final int PUERTO_PREDETERMINADO = 8080;
+    private static final int RESERVAS_POR_PAGINA = 50;
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final Map<Integer, String> fechasFormateadas = new HashMap<>();
+
+    public static void main(String[] args) {
+        scanner = new Scanner(System.in);
+        ServidorReservas.configurarSinRetardo();
+        publicarMetricas();
+        cadena = new CadenaHoteles(DIRECTORIO_CADENA, cargarTarifas(), MESES_ACTIVOS);
+        if (!abrirHotelPrincipal()) {
+            MetricasHotel.detenerVolcado();
+            return;
+        }
+        abrirOtrosHoteles();
+
+        boolean salir = false;
+        while (!salir) {
+            mostrarMenu();
+            int opcion = leerOpcion();
+
+            switch (opcion) {
+                case 1:
+                    registrarNuevaReserva();
+                    break;
+                case 2:
+                    mostrarReservasActivas();
+                    break;
+                case 3:
+                    mostrarIngresosPorTipoEnMes();
+                    break;
+                case 4:
+                    importarReservas();
+                    break;
+                case 5:
+                    alternarServidor();
+                    break;
+                case 6:
+                    mostrarMetricas();
+                    break;
+                case 7:
+                    mostrarReporteCadena();
+                    break;
+                case 8:
+                    cambiarDeHotel();
+                    break;
+                case 9:
+                    salir = true;
+                    break;
+                default:
+                    System.out.println("Opción no válida. Por favor, intente de nuevo.");
+            }
+        }
+        detenerServidor();
+        cerrarCadena();
+        MetricasHotel.detenerVolcado();
+        scanner.close();
+    }
+
+    private static void mostrarMenu() {
+        System.out.println("\n=== SISTEMA DE RESERVAS DE HOTEL (" + sede.getNombre() + ") ===");
+        System.out.println("1. Registrar nueva reserva");
+        System.out.println("2. Mostrar reservas activas");
+        System.out.println("3. Ver ingresos por tipo de habitación en un mes");
+        System.out.println("4. Importar reservas desde un archivo");
+        System.out.println(servidor == null ? "5. Iniciar servidor HTTP" : "5. Detener servidor HTTP");
+        System.out.println("6. Ver métricas de rendimiento");
+        System.out.println("7. Ver ingresos y ocupación de toda la cadena en un mes");
+        System.out.println("8. Cambiar de hotel");
+        System.out.println("9. Salir");
+        System.out.print("Seleccione una opción: ");
+    }
+
+    private static int leerOpcion() {
+        try {
+            return Integer.parseInt(scanner.nextLine());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void registrarNuevaReserva() {
+        System.out.println("\n=== REGISTRO DE NUEVA RESERVA ===");
+
+        // Seleccionar tipo de habitación
+        System.out.println("Seleccione tipo de habitación:");
+        for (int codigo = 0; codigo < RegistroTiposHabitacion.cantidad(); codigo++) {
+            Habitacion tipo = RegistroTiposHabitacion.porCodigo(codigo);
+            System.out.printf("%d. %s ($%.0f/noche%s)%n", codigo + 1, tipo.tipo, tipo.tarifaBase,
+                    tipo.calcularCostoAdicional(1, 1) > 0 ? " + servicios adicionales" : "");
+        }
+
+        Habitacion habitacion = null;
+        while (habitacion == null) {
+            habitacion = RegistroTiposHabitacion.porCodigo(leerOpcion() - 1);
+            if (habitacion == null) {
+                System.out.println("Opción no válida. Por favor, seleccione nuevamente.");
+            }
+        }
+
+        // Leer fecha de inicio
+        LocalDate fechaInicio = null;
+        while (fechaInicio == null) {
+            System.out.print("Ingrese fecha de inicio (dd/MM/yyyy): ");
+            try {
+                String fecha = scanner.nextLine();
+                fechaInicio = LocalDate.parse(fecha, formatter);
+            } catch (DateTimeParseException e) {
+                System.out.println("Formato de fecha inválido. Use dd/MM/yyyy");
+            }
+        }
+
+        // Leer cantidad de días
+        System.out.print("Ingrese cantidad de días: ");
+        int dias = Integer.parseInt(scanner.nextLine());
+
+        // Leer cantidad de personas
+        System.out.print("Ingrese cantidad de personas: ");
+        int personas = Integer.parseInt(scanner.nextLine());
+
+        // Crear, agregar y registrar la reserva en el diario
+        Reserva reserva = new Reserva(habitacion, fechaInicio, dias, personas);
+        try {
+            servicio.reservar(reserva);
+            System.out.println("\nReserva registrada exitosamente");
+        } catch (IllegalArgumentException | SinDisponibilidadException e) {
+            System.out.println("No se pudo registrar la reserva: " + e.getMessage());
+            return;
+        } catch (ReservasNoGuardadasException e) {
+            // La reserva ya ocupa su lugar en el hotel: no debe volver a ingresarse
+            System.out.println("\nReserva registrada, pero no guardada: " + e.getCause().getMessage());
+        }
+
+        // Mostrar costo total
+        System.out.printf("Costo total: $%.2f%n", reserva.calcularCostoTotal());
+    }
+
+    private static void mostrarReservasActivas() {
+        System.out.println("\n=== RESERVAS ACTIVAS ===");
+        StringBuilder tipos = new StringBuilder();
+        for (int codigo = 0; codigo < RegistroTiposHabitacion.cantidad(); codigo++) {
+            tipos.append(codigo + 1).append(". ").append(RegistroTiposHabitacion.nombre(codigo)).append(", ");
+        }
+        System.out.print("Tipo de habitación (" + tipos + "Enter para todas): ");
+        String tipo = null;
+        String opcion = scanner.nextLine().trim();
+        if (!opcion.isEmpty()) {
+            int codigo = leerEntero(opcion) - 1;
+            if (codigo < 0 || codigo >= RegistroTiposHabitacion.cantidad()) {
+                System.out.println("Opción no válida.");
+                return;
+            }
+            tipo = RegistroTiposHabitacion.nombre(codigo);
+        }
+        LocalDate desde;
+        LocalDate hasta;
+        try {
+            desde = leerFechaOpcional("Desde (dd/MM/yyyy, Enter para sin límite): ");
+            hasta = leerFechaOpcional("Hasta (dd/MM/yyyy, Enter para sin límite): ");
+        } catch (DateTimeParseException e) {
+            System.out.println("Formato de fecha inválido. Use dd/MM/yyyy");
+            return;
+        }
+
+        // Todas las líneas de una página se escriben juntas; el escritor no se cierra
+        // porque cerraría también System.out
+        BufferedWriter salida = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+        try {
+            int cursor = 0;
+            int numero = 1;
+            while (cursor >= 0) {
+                PaginaReservas pagina = hotel.listarReservas(cursor, RESERVAS_POR_PAGINA, tipo, desde, hasta);
+                if (numero == 1 && pagina.isEmpty() && !pagina.hayMas()) {
+                    System.out.println("No hay reservas activas.");
+                    return;
+                }
+                for (int i = 0; i < pagina.size(); i++) {
+                    salida.write(Integer.toString(numero++));
+                    salida.write(". Tipo: ");
+                    salida.write(pagina.tipoHabitacion(i));
+                    salida.write(", Fecha: ");
+                    salida.write(formatearFecha(pagina.diaEpoch(i)));
+                    salida.write(", Días: ");
+                    salida.write(Integer.toString(pagina.dias(i)));
+                    salida.write(", Costo: $");
+                    escribirCentavos(salida, pagina.costoCentavos(i));
+                    salida.newLine();
+                }
+                salida.flush();
+                cursor = pagina.getSiguiente();
+                if (cursor >= 0) {
+                    System.out.print("Enter para ver más, q para volver al menú: ");
+                    if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error al mostrar las reservas: " + e.getMessage());
+        }
+    }
+
+    private static LocalDate leerFechaOpcional(String mensaje) {
+        System.out.print(mensaje);
+        String texto = scanner.nextLine().trim();
+        return texto.isEmpty() ? null : LocalDate.parse(texto, formatter);
+    }
+
+    private static int leerEntero(String texto) {
+        try {
+            return Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Formatea una fecha con el formato dd/MM/yyyy, guardando el resultado: en un
+     * listado largo las mismas fechas se repiten muchas veces.
+     */
+    private static String formatearFecha(int diaEpoch) {
+        return fechasFormateadas.computeIfAbsent(diaEpoch, dia -> LocalDate.ofEpochDay(dia).format(formatter));
+    }
+
+    /**
+     * Escribe un importe en centavos con dos decimales, sin pasar por double ni printf.
+     */
+    private static void escribirCentavos(Writer salida, long centavos) throws IOException {
+        salida.write(Long.toString(centavos / 100));
+        salida.write('.');
+        long resto = centavos % 100;
+        if (resto < 10) {
+            salida.write('0');
+        }
+        salida.write(Long.toString(resto));
+    }
+
+    private static void mostrarIngresosPorTipoEnMes() {
+        System.out.println("\n=== INGRESOS POR TIPO DE HABITACIÓN ===");
+        System.out.print("Ingrese mes (MM) y año (yyyy) a consultar (MM/yyyy): ");
+
+        try {
+            String[] partes = scanner.nextLine().split("/");
+            int mes = Integer.parseInt(partes[0]);
+            int año = Integer.parseInt(partes[1]);
+
+            IngresosPorTipo ingresos = hotel.calcularIngresosPorTipo(mes, año);
+
+            for (int codigo = 0; codigo < RegistroTiposHabitacion.cantidad(); codigo++) {
+                System.out.printf("%s: $%.2f%n", RegistroTiposHabitacion.nombre(codigo),
+                        ingresos.getIngresosCentavos(codigo) / 100.0);
+            }
+
+            String tipoMayor = ingresos.getTipoMayorIngresos();
+            System.out.println("\nTipo de habitación con mayores ingresos: "
+                    + (tipoMayor == null ? "ninguno" : tipoMayor));
+        } catch (Exception e) {
+            System.out.println("Error al procesar la fecha. Use el formato MM/yyyy");
+        }
+    }
+
+    private static void mostrarReporteCadena() {
+        System.out.println("\n=== INGRESOS Y OCUPACIÓN DE LA CADENA ===");
+        System.out.print("Ingrese mes (MM) y año (yyyy) a consultar (MM/yyyy): ");
+
+        try {
+            String[] partes = scanner.nextLine().split("/");
+            int mes = Integer.parseInt(partes[0]);
+            int año = Integer.parseInt(partes[1]);
+            LocalDate desde = LocalDate.of(año, mes, 1);
+
+            LocalDate hasta = desde.plusMonths(1).minusDays(1);
+
+            // Cada hotel se consulta en paralelo y los resultados se combinan
+            IngresosPorTipo ingresos = EstadisticasHotel.calcularIngresosPorTipo(cadena, mes, año, mes, año);
+            OcupacionHotel ocupacion = EstadisticasHotel.calcularOcupacion(cadena, desde, hasta);
+
+            System.out.println("Hoteles de la cadena: " + cadena.getSedes().size());
+            for (CadenaHoteles.Sede abierta : cadena.getSedes()) {
+                System.out.println("  " + abierta.getNombre() + ": ocupación "
+                        + describirOcupacionTotal(abierta.getHotel().calcularOcupacion(desde, hasta)));
+            }
+            for (String tipo : RegistroTiposHabitacion.nombres()) {
+                String porcentaje = ocupacion.tieneLimite(tipo)
+                        ? String.format("%.1f%%", ocupacion.getPorcentajeOcupacion(tipo)) : "sin límite";
+                System.out.printf("%s: $%.2f, %d noches ocupadas, ocupación %s%n",
+                        tipo, ingresos.getIngresos(tipo), ocupacion.getNochesOcupadas(tipo), porcentaje);
+            }
+            System.out.printf("Total de la cadena: $%.2f, ocupación %s%n",
+                    ingresos.getTotal(), describirOcupacionTotal(ocupacion));
+        } catch (Exception e) {
+            System.out.println("Error al procesar la fecha. Use el formato MM/yyyy");
+        }
+    }
+
+    private static String describirOcupacionTotal(OcupacionHotel ocupacion) {
+        if (!ocupacion.tieneLimiteTotal()) {
+            return "sin límite (" + ocupacion.getTotalNochesOcupadas() + " noches ocupadas)";
+        }
+        return String.format("%.1f%%", ocupacion.getPorcentajeOcupacionTotal());
+    }
+
+    private static void cambiarDeHotel() {
+        System.out.println("\n=== CAMBIAR DE HOTEL ===");
+        for (CadenaHoteles.Sede abierta : cadena.getSedes()) {
+            System.out.println((abierta == sede ? "* " : "  ") + abierta.getNombre());
+        }
+        System.out.print("Ingrese el nombre del hotel (si no existe se crea en " + DIRECTORIO_CADENA + "): ");
+        String nombre = scanner.nextLine().trim();
+
+        try {
+            CadenaHoteles.Sede elegida = cadena.obtener(nombre);
+            if (elegida == null) {
+                elegida = cadena.abrir(nombre);
+                mostrarApertura(elegida);
+            }
+            usarSede(elegida);
+            System.out.println("Hotel actual: " + nombre);
+            if (servidor != null) {
+                System.out.println("El servidor HTTP sigue atendiendo al hotel anterior hasta que se reinicie");
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("No se pudo abrir el hotel: " + e.getMessage());
+        }
+    }
+
+    private static void importarReservas() {
+        System.out.println("\n=== IMPORTAR RESERVAS ===");
+        System.out.print("Ingrese la ruta del archivo de reservas: ");
+        String archivo = scanner.nextLine().trim();
+
+        // El lote completo se registra en el diario con una sola escritura
+        List<Reserva> reservas;
+        try {
+            reservas = GestorArchivos.leerReservas(archivo);
+        } catch (IOException e) {
+            System.out.println("No se importó ninguna reserva: " + e.getMessage());
+            return;
+        }
+        try {
+            servicio.reservarTodas(reservas);
+            System.out.println(reservas.size() + " reservas importadas exitosamente");
+        } catch (IllegalArgumentException | SinDisponibilidadException e) {
+            System.out.println("No se importó ninguna reserva: " + e.getMessage());
+        } catch (ReservasNoGuardadasException e) {
+            // Las reservas ya ocupan su lugar en el hotel: no deben volver a importarse
+            System.out.println(reservas.size() + " reservas importadas, pero no guardadas: "
+                    + e.getCause().getMessage());
+        }
+    }
+
+    private static void alternarServidor() {
+        if (servidor != null) {
+            detenerServidor();
+            System.out.println("Servidor HTTP detenido");
+            return;
+        }
+        System.out.print("Ingrese el puerto (Enter para " + PUERTO_PREDETERMINADO + "): ");
+        String texto = scanner.nextLine().trim();
+        try {
+            int puerto = texto.isEmpty() ? PUERTO_PREDETERMINADO : Integer.parseInt(texto);
+            servidor = new ServidorReservas(servicio, puerto);
+            System.out.println("Servidor HTTP escuchando en http://localhost:" + servidor.getPuerto() + "/reservas");
+        } catch (NumberFormatException e) {
+            System.out.println("Puerto no válido: " + texto);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("No se pudo iniciar el servidor HTTP: " + e.getMessage());
+        }
+    }
+
+    private static void detenerServidor() {
+        if (servidor != null) {
+            servidor.close();
+            servidor = null;
+        }
+    }
+
+    private static void mostrarMetricas() {
+        System.out.println("\n=== MÉTRICAS DE RENDIMIENTO ===");
+        System.out.print(MetricasHotel.resumen());
+        System.out.println("Cache de consultas: " + hotel.obtenerContadoresCache());
+    }
+
+    private static void publicarMetricas() {
+        try {
+            MetricasHotel.registrarEnJmx();
+        } catch (IllegalStateException e) {
+            System.out.println("No se pudieron publicar las métricas por JMX: " + e.getMessage());
+        }
+        MetricasHotel.iniciarVolcado(ARCHIVO_METRICAS, SEGUNDOS_ENTRE_VOLCADOS, TimeUnit.SECONDS);
+    }
+
+    private static MotorTarifas cargarTarifas() {
+        if (!new File(ARCHIVO_TARIFAS).exists()) {
+            return TablaTarifas.predeterminada();
+        }
+        try {
+            return TablaTarifas.cargar(ARCHIVO_TARIFAS);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error al leer las tarifas, se usan las predeterminadas: " + e.getMessage());
+            return TablaTarifas.predeterminada();
+        }
+    }
+
+    private static boolean abrirHotelPrincipal() {
+        // El hotel principal conserva sus archivos en el directorio de trabajo
+        try {
+            CadenaHoteles.Sede principal = cadena.abrir(HOTEL_PRINCIPAL, ".");
+            mostrarApertura(principal);
+            usarSede(principal);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("No se pudo abrir el hotel " + HOTEL_PRINCIPAL + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void abrirOtrosHoteles() {
+        try {
+            List<String> nombres = cadena.abrirTodos();
+            if (!nombres.isEmpty()) {
+                System.out.println("Otros hoteles de la cadena: " + String.join(", ", nombres));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("No se pudieron abrir los hoteles de " + DIRECTORIO_CADENA + ": " + e.getMessage());
+        }
+    }
+
+    private static void mostrarApertura(CadenaHoteles.Sede abierta) {
+        if (abierta.getCarga() == null) {
+            System.out.println("No se encontraron reservas guardadas.");
+        } else {
+            System.out.println("Reservas cargadas exitosamente: " + abierta.getCarga());
+            if (abierta.getCarga().getSobreocupadas() > 0) {
+                System.out.println("Atención: " + abierta.getCarga().getSobreocupadas()
+                        + " reservas guardadas superan el inventario de " + abierta.getNombre());
+            }
+        }
+        long archivadas = abierta.getHistorico().getFilasArchivadas();
+        if (archivadas > 0) {
+            System.out.println(archivadas + " reservas anteriores a los últimos "
+                    + MESES_ACTIVOS + " meses archivadas en el histórico");
+        }
+    }
+
+    private static void usarSede(CadenaHoteles.Sede elegida) {
+        sede = elegida;
+        hotel = elegida.getHotel();
+        servicio = elegida.getServicio();
+    }
+
+    private static void cerrarCadena() {
+        try {
+            cadena.close();
+        } catch (IOException e) {
+            System.out.println("Error al cerrar el diario de reservas: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
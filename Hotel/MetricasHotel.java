@@ -0,0 +1,260 @@
+package Hotel;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * La clase MetricasHotel mide la duración de las operaciones más usadas del sistema:
+ * el alta de reservas, sola o en lote, la consulta de ingresos por tipo y mes, y la
+ * escritura y lectura del archivo de reservas, incluida la recuperación al abrir un hotel. Cada operación tiene su propio {@link Histograma}.
+ *
+ * Las métricas pueden consultarse por JMX, bajo el dominio {@code Hotel}, o volcarse
+ * periódicamente como texto a un archivo. Se habilitan por defecto y pueden apagarse
+ * con la propiedad de sistema {@code hotel.metricas=false} o desde JMX; apagadas, cada
+ * operación solo paga la lectura de un campo volatile.
+ *
+ * Leer el reloj cuesta decenas de nanosegundos, tanto como una consulta de ingresos
+ * respondida desde la cache. Por eso las operaciones rápidas se miden por muestreo:
+ * solo una de cada {@code muestreo} llamadas, elegida al azar, se cronometra, y se
+ * registra con ese peso para que las cantidades sigan siendo estimaciones del total.
+ *
+ * Uso en una operación medida:
+ * <pre>
+ * long medicion = MetricasHotel.iniciar(MetricasHotel.Operacion.AGREGAR_RESERVA);
+ * try {
+ *     ...
+ * } catch (RuntimeException e) {
+ *     MetricasHotel.registrarFallo(MetricasHotel.Operacion.AGREGAR_RESERVA, medicion);
+ *     throw e;
+ * } finally {
+ *     MetricasHotel.registrar(MetricasHotel.Operacion.AGREGAR_RESERVA, medicion);
+ * }
+ * </pre>
+ */
+class MetricasHotel {
+    private static final long SIN_MEDIR = Long.MIN_VALUE;
+    private static final String DOMINIO = "Hotel";
+
+    private static volatile boolean habilitadas =
+            Boolean.parseBoolean(System.getProperty("hotel.metricas", "true"));
+    private static ScheduledExecutorService volcador;
+
+    /**
+     * Operaciones medidas, cada una con su histograma de duraciones y la proporción
+     * de llamadas que se cronometran, que debe ser una potencia de dos.
+     */
+    enum Operacion {
+        AGREGAR_RESERVA("agregarReserva", 1),
+        AGREGAR_RESERVAS("agregarReservas", 1),
+        INGRESOS_TIPO_MES("calcularIngresosPorTipoYMes", 256),
+        GUARDAR_RESERVAS("guardarReservas", 1),
+        CARGAR_RESERVAS("cargarReservas", 1);
+
+        private final String nombre;
+        private final int muestreo;
+        private final Histograma histograma = new Histograma();
+
+        Operacion(String nombre, int muestreo) {
+            this.nombre = nombre;
+            this.muestreo = muestreo;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public Histograma getHistograma() {
+            return histograma;
+        }
+    }
+
+    private MetricasHotel() {
+    }
+
+    /**
+     * Marca el comienzo de una operación medida.
+     *
+     * @param operacion la operación que comienza
+     * @return el instante de comienzo, que se pasa luego a {@link #registrar}
+     */
+    public static long iniciar(Operacion operacion) {
+        if (!habilitadas) {
+            return SIN_MEDIR;
+        }
+        if (operacion.muestreo > 1 && (ThreadLocalRandom.current().nextInt() & (operacion.muestreo - 1)) != 0) {
+            return SIN_MEDIR;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra la duración de una operación que comenzó en {@code inicio}. Si las
+     * métricas estaban apagadas al comenzar la operación o esta llamada no entró en
+     * la muestra, no registra nada.
+     *
+     * @param operacion la operación medida
+     * @param inicio el valor devuelto por {@link #iniciar(Operacion)}
+     */
+    public static void registrar(Operacion operacion, long inicio) {
+        if (inicio != SIN_MEDIR) {
+            operacion.histograma.registrar(System.nanoTime() - inicio, operacion.muestreo);
+        }
+    }
+
+    /**
+     * Cuenta una operación que terminó con una excepción.
+     *
+     * @param operacion la operación medida
+     * @param inicio el valor devuelto por {@link #iniciar(Operacion)}
+     */
+    public static void registrarFallo(Operacion operacion, long inicio) {
+        if (inicio != SIN_MEDIR) {
+            operacion.histograma.registrarFallo(operacion.muestreo);
+        }
+    }
+
+    public static boolean isHabilitadas() {
+        return habilitadas;
+    }
+
+    public static void setHabilitadas(boolean valor) {
+        habilitadas = valor;
+    }
+
+    /**
+     * Vuelve a cero los histogramas de todas las operaciones.
+     */
+    public static void reiniciar() {
+        for (Operacion operacion : Operacion.values()) {
+            operacion.histograma.reiniciar();
+        }
+    }
+
+    /**
+     * Genera un resumen en texto con una línea por operación.
+     *
+     * @return el resumen de las métricas
+     */
+    public static String resumen() {
+        StringWriter texto = new StringWriter();
+        PrintWriter salida = new PrintWriter(texto);
+        salida.printf("%-28s %10s %8s %12s %12s %12s %12s %12s%n", "Operación", "Cantidad", "Fallos",
+                "Media ns", "p50 ns", "p99 ns", "p99.9 ns", "Máximo ns");
+        for (Operacion operacion : Operacion.values()) {
+            Histograma h = operacion.histograma;
+            salida.printf("%-28s %10d %8d %12.0f %12d %12d %12d %12d%n", operacion.nombre, h.getCantidad(),
+                    h.getFallos(), h.getMediaNanos(), h.getPercentil50Nanos(), h.getPercentil99Nanos(),
+                    h.getPercentil999Nanos(), h.getMaximoNanos());
+        }
+        salida.flush();
+        return texto.toString();
+    }
+
+    /**
+     * Publica las métricas en el servidor JMX de la plataforma: un MXBean de control
+     * ({@code Hotel:type=Metricas}) y uno por operación
+     * ({@code Hotel:type=Metricas,operacion=<nombre>}). Llamarlo más de una vez no
+     * tiene efecto.
+     *
+     * @throws IllegalStateException si el servidor JMX rechaza el registro
+     */
+    public static synchronized void registrarEnJmx() {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName control = new ObjectName(DOMINIO + ":type=Metricas");
+            if (servidor.isRegistered(control)) {
+                return;
+            }
+            for (Operacion operacion : Operacion.values()) {
+                servidor.registerMBean(operacion.histograma,
+                        new ObjectName(DOMINIO + ":type=Metricas,operacion=" + operacion.nombre));
+            }
+            servidor.registerMBean(new Control(), control);
+        } catch (JMException e) {
+            throw new IllegalStateException("No se pudieron registrar las métricas en JMX", e);
+        }
+    }
+
+    /**
+     * Escribe el resumen de las métricas en un archivo cada cierto tiempo, desde un
+     * hilo en segundo plano. El archivo se reemplaza de una vez, por lo que nunca se
+     * lee a medio escribir. Si ya había un volcado en marcha, lo detiene.
+     *
+     * @param archivo el nombre o ruta del archivo de métricas
+     * @param periodo el tiempo entre volcados
+     * @param unidad la unidad del periodo
+     */
+    public static synchronized void iniciarVolcado(String archivo, long periodo, TimeUnit unidad) {
+        detenerVolcado();
+        volcador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "volcado-metricas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        Path destino = Paths.get(archivo);
+        volcador.scheduleAtFixedRate(() -> {
+            try {
+                volcar(destino);
+            } catch (IOException e) {
+                System.err.println("No se pudieron volcar las métricas: " + e.getMessage());
+            }
+        }, periodo, periodo, unidad);
+    }
+
+    /**
+     * Detiene el volcado periódico, si había uno en marcha.
+     */
+    public static synchronized void detenerVolcado() {
+        if (volcador != null) {
+            volcador.shutdownNow();
+            volcador = null;
+        }
+    }
+
+    private static void volcar(Path destino) throws IOException {
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        String texto = "Métricas al " + LocalDateTime.now() + System.lineSeparator() + resumen();
+        Files.write(temporal, texto.getBytes(StandardCharsets.UTF_8));
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * MXBean de control que delega en los métodos estáticos de la clase.
+     */
+    private static class Control implements MetricasHotelMXBean {
+        @Override
+        public boolean isHabilitadas() {
+            return MetricasHotel.isHabilitadas();
+        }
+
+        @Override
+        public void setHabilitadas(boolean valor) {
+            MetricasHotel.setHabilitadas(valor);
+        }
+
+        @Override
+        public String getResumen() {
+            return MetricasHotel.resumen();
+        }
+
+        @Override
+        public void reiniciar() {
+            MetricasHotel.reiniciar();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package Hotel;
+
+/**
+ * Vista JMX del control de las métricas del hotel.
+ */
+public interface MetricasHotelMXBean {
+
+    /**
+     * @return true si las operaciones se están midiendo
+     */
+    boolean isHabilitadas();
+
+    /**
+     * @param habilitadas true para medir las operaciones, false para dejar de hacerlo
+     */
+    void setHabilitadas(boolean habilitadas);
+
+    /**
+     * @return el resumen en texto de todas las operaciones medidas
+     */
+    String getResumen();
+
+    /**
+     * Vuelve a cero todos los histogramas.
+     */
+    void reiniciar();
+}
@@ -0,0 +1,18 @@
+package Hotel;
+
+/**
+ * La interfaz MotorTarifas define cómo se calcula el costo de una reserva.
+ * Los importes se manejan en centavos enteros para que las sumas de ingresos sean exactas.
+ */
+interface MotorTarifas {
+
+    /**
+     * Calcula el costo total de una reserva.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param dias el número de días de la reserva
+     * @param personas el número de personas que se hospedarán
+     * @return el costo total de la reserva en centavos
+     */
+    long costoCentavos(int codigoTipo, int dias, int personas);
+}
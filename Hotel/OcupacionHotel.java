@@ -0,0 +1,192 @@
+package Hotel;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * La clase OcupacionHotel contiene la ocupación del hotel por tipo de habitación
+ * en un rango de fechas: las noches-habitación ocupadas, las disponibles según el
+ * inventario y el porcentaje de ocupación. Un tipo sin límite de habitaciones no
+ * tiene noches disponibles ni porcentaje; los informes deben consultarlo con
+ * {@link #tieneLimite(String)} y mostrarlo como ocupación sin límite.
+ */
+class OcupacionHotel {
+    private final LocalDate desde;
+    private final LocalDate hasta;
+    private final long[] nochesOcupadas;
+    private final long[] nochesDisponibles;
+
+    /**
+     * Constructor de la clase OcupacionHotel.
+     *
+     * @param desde la primera noche del rango
+     * @param hasta la última noche del rango
+     * @param nochesOcupadas las noches-habitación ocupadas, indexadas por código de tipo
+     * @param inventario el número de habitaciones de cada tipo, indexado por código de tipo;
+     *                   {@link Disponibilidad#SIN_LIMITE} si el tipo no tiene límite
+     */
+    public OcupacionHotel(LocalDate desde, LocalDate hasta, long[] nochesOcupadas, int[] inventario) {
+        this(desde, hasta, nochesOcupadas.clone(), nochesDisponibles(desde, hasta, inventario));
+    }
+
+    private OcupacionHotel(LocalDate desde, LocalDate hasta, long[] nochesOcupadas, long[] nochesDisponibles) {
+        this.desde = desde;
+        this.hasta = hasta;
+        this.nochesOcupadas = nochesOcupadas;
+        this.nochesDisponibles = nochesDisponibles;
+    }
+
+    private static long[] nochesDisponibles(LocalDate desde, LocalDate hasta, int[] inventario) {
+        long[] disponibles = new long[inventario.length];
+        long noches = ChronoUnit.DAYS.between(desde, hasta) + 1;
+        for (int i = 0; i < inventario.length; i++) {
+            disponibles[i] = inventario[i] == Disponibilidad.SIN_LIMITE ? -1 : inventario[i] * noches;
+        }
+        return disponibles;
+    }
+
+    /**
+     * Combina esta ocupación con la de otro hotel en el mismo rango de fechas, por
+     * ejemplo para obtener la de toda una cadena: suma las noches ocupadas y las
+     * disponibles de cada tipo. Si un tipo no tiene límite de habitaciones en alguno
+     * de los dos hoteles, tampoco lo tiene en la combinación. Ninguna de las dos cambia.
+     *
+     * @param otra la ocupación a combinar
+     * @return una ocupación con la suma de ambas
+     * @throws IllegalArgumentException si las dos ocupaciones son de rangos distintos
+     */
+    public OcupacionHotel combinar(OcupacionHotel otra) {
+        if (!desde.equals(otra.desde) || !hasta.equals(otra.hasta)) {
+            throw new IllegalArgumentException("No se pueden combinar ocupaciones de rangos distintos: "
+                    + desde + " a " + hasta + " y " + otra.desde + " a " + otra.hasta);
+        }
+        long[] ocupadas = new long[nochesOcupadas.length];
+        long[] disponibles = new long[nochesDisponibles.length];
+        for (int i = 0; i < ocupadas.length; i++) {
+            ocupadas[i] = nochesOcupadas[i] + otra.nochesOcupadas[i];
+            disponibles[i] = nochesDisponibles[i] < 0 || otra.nochesDisponibles[i] < 0
+                    ? -1 : nochesDisponibles[i] + otra.nochesDisponibles[i];
+        }
+        return new OcupacionHotel(desde, hasta, ocupadas, disponibles);
+    }
+
+    /**
+     * Obtiene la primera noche del rango consultado.
+     *
+     * @return la primera noche del rango
+     */
+    public LocalDate getDesde() {
+        return desde;
+    }
+
+    /**
+     * Obtiene la última noche del rango consultado.
+     *
+     * @return la última noche del rango
+     */
+    public LocalDate getHasta() {
+        return hasta;
+    }
+
+    /**
+     * Obtiene las noches-habitación ocupadas de un tipo en el rango.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @return las noches-habitación ocupadas
+     */
+    public long getNochesOcupadas(String tipo) {
+        return nochesOcupadas[codigo(tipo)];
+    }
+
+    /**
+     * Obtiene las noches-habitación que ofrece un tipo en el rango según su inventario.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @return las noches-habitación disponibles, o -1 si el tipo no tiene límite de habitaciones
+     */
+    public long getNochesDisponibles(String tipo) {
+        return nochesDisponibles[codigo(tipo)];
+    }
+
+    /**
+     * Indica si un tipo tiene un número limitado de habitaciones, y por lo tanto un
+     * porcentaje de ocupación.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @return true si el inventario limita las habitaciones del tipo
+     */
+    public boolean tieneLimite(String tipo) {
+        return getNochesDisponibles(tipo) >= 0;
+    }
+
+    /**
+     * Indica si todos los tipos tienen un número limitado de habitaciones, y por lo tanto
+     * el hotel tiene un porcentaje de ocupación total.
+     *
+     * @return true si el inventario limita las habitaciones de todos los tipos
+     */
+    public boolean tieneLimiteTotal() {
+        for (long noches : nochesDisponibles) {
+            if (noches < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calcula el porcentaje de ocupación de un tipo en el rango.
+     *
+     * @param tipo el tipo de habitación registrado
+     * @return el porcentaje de ocupación, o NaN si el tipo no tiene límite de habitaciones
+     * @see #tieneLimite(String)
+     */
+    public double getPorcentajeOcupacion(String tipo) {
+        return porcentaje(getNochesOcupadas(tipo), getNochesDisponibles(tipo));
+    }
+
+    /**
+     * Obtiene las noches-habitación ocupadas de todos los tipos en el rango.
+     *
+     * @return el total de noches-habitación ocupadas
+     */
+    public long getTotalNochesOcupadas() {
+        long total = 0;
+        for (long noches : nochesOcupadas) {
+            total += noches;
+        }
+        return total;
+    }
+
+    /**
+     * Calcula el porcentaje de ocupación de todo el hotel en el rango.
+     *
+     * @return el porcentaje de ocupación, o NaN si algún tipo no tiene límite de habitaciones
+     * @see #tieneLimiteTotal()
+     */
+    public double getPorcentajeOcupacionTotal() {
+        long disponibles = 0;
+        for (long noches : nochesDisponibles) {
+            if (noches < 0) {
+                return Double.NaN;
+            }
+            disponibles += noches;
+        }
+        return porcentaje(getTotalNochesOcupadas(), disponibles);
+    }
+
+    private static double porcentaje(long ocupadas, long disponibles) {
+        if (disponibles < 0) {
+            return Double.NaN;
+        }
+        return disponibles == 0 ? 0 : ocupadas * 100.0 / disponibles;
+    }
+
+    private static int codigo(String tipo) {
+        int codigo = RegistroTiposHabitacion.codigoDe(tipo);
+        if (codigo < 0) {
+            throw new IllegalArgumentException("Tipo de habitación desconocido: " + tipo);
+        }
+        return codigo;
+    }
+}
@@ -0,0 +1,96 @@
+package Hotel;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * La clase PaginaReservas es una página de un listado de reservas del hotel.
+ * Se puede usar como una lista de reservas o leer sus columnas sin crear objetos,
+ * y guarda el cursor desde el que continúa la página siguiente.
+ *
+ * Como las reservas solo se agregan al final, un cursor sigue siendo válido aunque
+ * se agreguen reservas entre una página y la siguiente.
+ */
+class PaginaReservas extends AbstractList<Reserva> implements RandomAccess {
+    private final VistaReservas vista;
+    private final int[] filas;
+    private final int siguiente;
+
+    /**
+     * Constructor de la clase PaginaReservas.
+     *
+     * @param vista las reservas del hotel al armar la página
+     * @param filas las posiciones en la vista de las reservas de la página
+     * @param siguiente el cursor de la página siguiente, o -1 si no hay más reservas
+     */
+    PaginaReservas(VistaReservas vista, int[] filas, int siguiente) {
+        this.vista = vista;
+        this.filas = filas;
+        this.siguiente = siguiente;
+    }
+
+    @Override
+    public Reserva get(int i) {
+        return vista.get(fila(i));
+    }
+
+    @Override
+    public int size() {
+        return filas.length;
+    }
+
+    /**
+     * Obtiene la posición en el hotel de una reserva de la página.
+     *
+     * @param i la posición en la página
+     * @return la posición de la reserva entre todas las del hotel
+     */
+    public int fila(int i) {
+        if (i < 0 || i >= filas.length) {
+            throw new IndexOutOfBoundsException("Posición " + i + " fuera de la página de " + filas.length);
+        }
+        return filas[i];
+    }
+
+    public int codigoTipo(int i) {
+        return vista.codigoTipo(fila(i));
+    }
+
+    public String tipoHabitacion(int i) {
+        return vista.tipoHabitacion(fila(i));
+    }
+
+    public int diaEpoch(int i) {
+        return vista.diaEpoch(fila(i));
+    }
+
+    public int dias(int i) {
+        return vista.dias(fila(i));
+    }
+
+    public int personas(int i) {
+        return vista.personas(fila(i));
+    }
+
+    public long costoCentavos(int i) {
+        return vista.costoCentavos(fila(i));
+    }
+
+    /**
+     * Obtiene el cursor con el que se pide la página siguiente.
+     *
+     * @return el cursor de la página siguiente, o -1 si no quedan reservas por listar
+     */
+    public int getSiguiente() {
+        return siguiente;
+    }
+
+    /**
+     * Indica si quedan reservas por listar después de esta página.
+     *
+     * @return true si hay una página siguiente
+     */
+    public boolean hayMas() {
+        return siguiente >= 0;
+    }
+}
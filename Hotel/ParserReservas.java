@@ -0,0 +1,148 @@
+package Hotel;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * La clase ParserReservas interpreta las líneas del archivo de reservas
+ * directamente sobre los bytes leídos, sin expresiones regulares ni cadenas
+ * intermedias. Cada línea tiene el formato tipo,fecha,dias,personas[,costo].
+ */
+class ParserReservas {
+    private static volatile byte[][] nombresTipos = new byte[0][];
+
+    private ParserReservas() {
+    }
+
+    /**
+     * Interpreta una línea del archivo de reservas y la agrega a una tabla.
+     * El costo guardado al final de la línea se ignora, ya que se recalcula a partir
+     * del tipo de habitación. Una línea bien formada se rechaza igualmente si la reserva
+     * no pasaría las validaciones de {@link Hotel#agregarReserva(Reserva)}, para que las
+     * cargas la descarten en lugar de fallar al agregarla al hotel.
+     *
+     * @param buffer el buffer que contiene la línea
+     * @param inicio la posición del primer byte de la línea
+     * @param fin la posición siguiente al último byte de la línea (sin el salto de línea)
+     * @param destino la tabla a la que se agrega la reserva leída
+     * @return true si se agregó la reserva, o false si la línea está vacía, mal formada, su tipo es
+     *         desconocido o la reserva no es válida
+     */
+    public static boolean parsearLinea(ByteBuffer buffer, int inicio, int fin, TablaReservas destino) {
+        if (fin > inicio && buffer.get(fin - 1) == '\r') {
+            fin--;
+        }
+        int coma = buscarComa(buffer, inicio, fin);
+        if (coma < 0) {
+            return false;
+        }
+        int codigoTipo = buscarCodigoTipo(buffer, inicio, coma);
+        if (codigoTipo < 0) {
+            return false;
+        }
+
+        int pos = coma + 1;
+        if (fin - pos < 10) {
+            return false;
+        }
+        int diaEpoch = Calendario.parsear(buffer, pos);
+        pos += 10;
+        if (diaEpoch == Calendario.FECHA_INVALIDA || pos >= fin || buffer.get(pos) != ',') {
+            return false;
+        }
+
+        int finDias = buscarComa(buffer, ++pos, fin);
+        if (finDias < 0) {
+            return false;
+        }
+        int dias = leerDigitos(buffer, pos, finDias);
+        pos = finDias + 1;
+        int finPersonas = buscarComa(buffer, pos, fin);
+        int personas = leerDigitos(buffer, pos, finPersonas < 0 ? fin : finPersonas);
+        if (!esValida(diaEpoch, dias, personas)) {
+            return false;
+        }
+        destino.agregar(codigoTipo, diaEpoch, dias, personas);
+        return true;
+    }
+
+    /**
+     * Indica si los datos de una reserva leída de un archivo son válidos: al menos un día
+     * y una persona, sin superar lo que cabe en las columnas de la tabla, y una estadía
+     * dentro del rango de fechas que admiten la disponibilidad y el cubo de ingresos.
+     *
+     * @param diaEpoch la fecha de inicio como día desde la época
+     * @param dias el número de noches
+     * @param personas el número de personas
+     * @return true si la reserva puede agregarse a un hotel
+     */
+    static boolean esValida(int diaEpoch, int dias, int personas) {
+        return dias >= 1 && dias <= Short.MAX_VALUE && personas >= 1 && personas <= Short.MAX_VALUE
+                && Disponibilidad.enRango(diaEpoch, dias);
+    }
+
+    private static int buscarCodigoTipo(ByteBuffer buffer, int inicio, int fin) {
+        byte[][] nombres = nombresTipos();
+        for (int i = 0; i < nombres.length; i++) {
+            byte[] nombre = nombres[i];
+            if (nombre.length != fin - inicio) {
+                continue;
+            }
+            int j = 0;
+            while (j < nombre.length && buffer.get(inicio + j) == nombre[j]) {
+                j++;
+            }
+            if (j == nombre.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Obtiene los nombres de los tipos de habitación registrados como bytes, indexados por
+     * código. Se vuelven a calcular solo cuando se registra un tipo nuevo.
+     */
+    private static byte[][] nombresTipos() {
+        byte[][] nombres = nombresTipos;
+        if (nombres.length != RegistroTiposHabitacion.cantidad()) {
+            List<String> registrados = RegistroTiposHabitacion.nombres();
+            nombres = new byte[registrados.size()][];
+            for (int i = 0; i < nombres.length; i++) {
+                nombres[i] = registrados.get(i).getBytes(StandardCharsets.UTF_8);
+            }
+            nombresTipos = nombres;
+        }
+        return nombres;
+    }
+
+    private static int buscarComa(ByteBuffer buffer, int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            if (buffer.get(i) == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lee un número entero no negativo escrito en decimal.
+     *
+     * @return el número leído, o -1 si el rango está vacío o contiene algo que no es un dígito
+     */
+    private static int leerDigitos(ByteBuffer buffer, int inicio, int fin) {
+        if (inicio >= fin || fin - inicio > 9) {
+            return -1;
+        }
+        int valor = 0;
+        for (int i = inicio; i < fin; i++) {
+            int digito = buffer.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,127 @@
+package Hotel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * La clase RegistroTiposHabitacion es el registro de los tipos de habitación que ofrece
+ * el hotel. Cada tipo se registra con la instancia compartida de su subclase de
+ * {@link Habitacion} y recibe un código denso, su posición en el registro, que es el que
+ * usan las tablas de reservas, el cubo de ingresos, la disponibilidad y las tarifas para
+ * indexar sus arreglos. Así las consultas trabajan con códigos y nunca comparan nombres,
+ * y un tipo nuevo se agrega con su subclase y una línea en este registro.
+ *
+ * Los tipos deben registrarse antes de crear hoteles y tablas de tarifas, ya que estos
+ * dimensionan sus arreglos con el número de tipos registrados.
+ */
+class RegistroTiposHabitacion {
+    /** Número máximo de tipos, ya que la tabla de reservas guarda el código en un byte. */
+    static final int MAXIMO_TIPOS = Byte.MAX_VALUE + 1;
+
+    private static final Map<String, Habitacion> porNombre = new ConcurrentHashMap<>();
+    private static volatile Habitacion[] habitaciones = new Habitacion[0];
+    private static volatile List<String> nombres = List.of();
+
+    static {
+        registrar(new HabitacionEstandar());
+        registrar(new HabitacionEjecutiva());
+        registrar(new SuitePresidencial());
+        registrar(new JuniorSuite());
+    }
+
+    private RegistroTiposHabitacion() {
+    }
+
+    /**
+     * Registra un tipo de habitación con el siguiente código libre. La instancia queda
+     * como la habitación compartida de su tipo.
+     *
+     * @param habitacion la instancia compartida del tipo
+     * @return el código asignado al tipo
+     * @throws IllegalArgumentException si ya hay un tipo registrado con el mismo nombre
+     * @throws IllegalStateException si ya se registró el número máximo de tipos
+     */
+    public static synchronized int registrar(Habitacion habitacion) {
+        if (porNombre.containsKey(habitacion.tipo)) {
+            throw new IllegalArgumentException("El tipo de habitación ya está registrado: " + habitacion.tipo);
+        }
+        int codigo = habitaciones.length;
+        if (codigo == MAXIMO_TIPOS) {
+            throw new IllegalStateException("No se pueden registrar más de " + MAXIMO_TIPOS + " tipos de habitación");
+        }
+        habitacion.codigo = codigo;
+        Habitacion[] ampliadas = Arrays.copyOf(habitaciones, codigo + 1);
+        ampliadas[codigo] = habitacion;
+        String[] ampliados = nombres.toArray(new String[codigo + 1]);
+        ampliados[codigo] = habitacion.tipo;
+        habitaciones = ampliadas;
+        nombres = List.of(ampliados);
+        porNombre.put(habitacion.tipo, habitacion);
+        return codigo;
+    }
+
+    /**
+     * Obtiene el número de tipos registrados; los códigos van de 0 a este número menos uno.
+     *
+     * @return el número de tipos de habitación
+     */
+    public static int cantidad() {
+        return habitaciones.length;
+    }
+
+    /**
+     * Obtiene los nombres de los tipos registrados, en el orden de sus códigos.
+     *
+     * @return una lista de solo lectura con los nombres de los tipos
+     */
+    public static List<String> nombres() {
+        return nombres;
+    }
+
+    /**
+     * Obtiene el nombre del tipo con un código.
+     *
+     * @param codigo el código del tipo de habitación
+     * @return el nombre del tipo
+     * @throws IndexOutOfBoundsException si el código no existe
+     */
+    public static String nombre(int codigo) {
+        return nombres.get(codigo);
+    }
+
+    /**
+     * Obtiene la instancia compartida de la habitación de un tipo.
+     * Las habitaciones no guardan estado propio de cada reserva, por lo que una misma
+     * instancia puede usarse en todas las reservas de ese tipo.
+     *
+     * @param tipo el nombre del tipo de habitación
+     * @return la habitación compartida del tipo, o null si el tipo no existe
+     */
+    public static Habitacion porTipo(String tipo) {
+        return tipo == null ? null : porNombre.get(tipo);
+    }
+
+    /**
+     * Obtiene la instancia compartida de la habitación con un código de tipo.
+     *
+     * @param codigo el código del tipo de habitación
+     * @return la habitación compartida del tipo, o null si el código no existe
+     */
+    public static Habitacion porCodigo(int codigo) {
+        Habitacion[] registradas = habitaciones;
+        return codigo >= 0 && codigo < registradas.length ? registradas[codigo] : null;
+    }
+
+    /**
+     * Obtiene el código de un tipo de habitación.
+     *
+     * @param tipo el nombre del tipo de habitación
+     * @return el código del tipo, o -1 si el tipo no existe
+     */
+    public static int codigoDe(String tipo) {
+        Habitacion habitacion = porTipo(tipo);
+        return habitacion == null ? -1 : habitacion.codigo;
+    }
+}
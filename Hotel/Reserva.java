@@ -1,77 +1,193 @@
-package Hotel;
-
-// src/Reserva.java
-import java.time.LocalDate;
-
-/**
- * La clase Reserva representa una reserva de una habitación en el hotel.
- * Contiene detalles de la habitación, fecha de inicio, número de días y personas.
- */
-class Reserva {
-    private Habitacion habitacion;
-    private LocalDate fechaInicio;
-    private int dias;
-    private int personas;
-
-    /**
-     * Constructor de la clase Reserva.
-     *
-     * @param habitacion la habitación reservada
-     * @param fechaInicio la fecha de inicio de la reserva
-     * @param dias el número de días de la reserva
-     * @param personas el número de personas que se hospedarán
-     */
-    public Reserva(Habitacion habitacion, LocalDate fechaInicio, int dias, int personas) {
-        this.habitacion = habitacion;
-        this.fechaInicio = fechaInicio;
-        this.dias = dias;
-        this.personas = personas;
-    }
-
-    /**
-     * Calcula el costo total de la reserva, incluyendo costos adicionales.
-     *
-     * @return el costo total de la reserva
-     */
-    public double calcularCostoTotal() {
-        return (habitacion.tarifaBase * dias) + habitacion.calcularCostoAdicional(personas, dias);
-    }
-
-    /**
-     * Obtiene el tipo de habitación reservada.
-     *
-     * @return el tipo de la habitación (por ejemplo, Estandar, Ejecutiva, Suite)
-     */
-    public String getTipoHabitacion() {
-        return habitacion.tipo;
-    }
-
-    /**
-     * Obtiene la fecha de inicio de la reserva.
-     *
-     * @return la fecha de inicio de la reserva
-     */
-    public LocalDate getFechaInicio() {
-        return fechaInicio;
-    }
-
-    /**
-     * Obtiene el número de días de la reserva.
-     *
-     * @return el número de días de la reserva
-     */
-    public int getDias() {
-        return dias;
-    }
-
-    /**
-     * Devuelve una representación en cadena de la reserva, que incluye tipo de habitación,
-     * fecha de inicio, duración, número de personas y costo total.
-     *
-     * @return una cadena con los detalles de la reserva
-     */
-    @Override
-    public String toString() {
-        return habitacion.tipo + "," + fechaInicio + "," + dias + "," + personas + "," + calcularCostoTotal();
-    }
-}
+package Hotel;
+
+// src/Reserva.java
+import java.time.LocalDate;
+
+/**
+ * La clase Reserva representa una reserva de una habitación en el hotel.
+ * Contiene detalles de la habitación, fecha de inicio, número de días y personas.
+ * La fecha de inicio también se guarda como día desde la época y como clave de mes
+ * aaaamm, para que los filtros por fecha o por mes sean comparaciones de enteros.
+ *
+ * El costo lo calcula el motor de tarifas del hotel: una reserva creada con el
+ * constructor público no tiene costo registrado hasta que el hotel la agrega, y a partir
+ * de ahí tiene el mismo que queda guardado en la tabla de reservas. Mientras tanto,
+ * {@link #calcularCostoTotal()} la cotiza con las tarifas de su clase de habitación.
+ */
+class Reserva {
+    /** Valor del costo de una reserva que el hotel todavía no tarificó. */
+    static final long SIN_COSTO = -1;
+
+    private Habitacion habitacion;
+    private LocalDate fechaInicio;
+    private int diaEpoch;
+    private int claveMes;
+    private int dias;
+    private int personas;
+    private long costoCentavos;
+
+    /**
+     * Constructor de la clase Reserva. La reserva no tiene costo hasta que se agrega
+     * a un hotel, que la tarifica con su motor de tarifas.
+     *
+     * @param habitacion la habitación reservada
+     * @param fechaInicio la fecha de inicio de la reserva
+     * @param dias el número de días de la reserva
+     * @param personas el número de personas que se hospedarán
+     */
+    public Reserva(Habitacion habitacion, LocalDate fechaInicio, int dias, int personas) {
+        this(habitacion, fechaInicio, dias, personas, SIN_COSTO);
+    }
+
+    /**
+     * Constructor de la clase Reserva a partir de la fecha de inicio como día desde la época.
+     *
+     * @param habitacion la habitación reservada
+     * @param diaEpoch la fecha de inicio de la reserva como día desde la época
+     * @param dias el número de días de la reserva
+     * @param personas el número de personas que se hospedarán
+     */
+    Reserva(Habitacion habitacion, int diaEpoch, int dias, int personas) {
+        this(habitacion, LocalDate.ofEpochDay(diaEpoch), dias, personas);
+    }
+
+    /**
+     * Constructor de la clase Reserva con un costo ya calculado, por ejemplo por el
+     * motor de tarifas del hotel.
+     *
+     * @param habitacion la habitación reservada
+     * @param fechaInicio la fecha de inicio de la reserva
+     * @param dias el número de días de la reserva
+     * @param personas el número de personas que se hospedarán
+     * @param costoCentavos el costo total de la reserva en centavos, o {@link #SIN_COSTO}
+     */
+    Reserva(Habitacion habitacion, LocalDate fechaInicio, int dias, int personas, long costoCentavos) {
+        this.habitacion = habitacion;
+        this.fechaInicio = fechaInicio;
+        if (fechaInicio != null) {
+            this.diaEpoch = (int) fechaInicio.toEpochDay();
+            this.claveMes = IndiceReservas.claveMes(fechaInicio.getYear(), fechaInicio.getMonthValue());
+        }
+        this.dias = dias;
+        this.personas = personas;
+        this.costoCentavos = costoCentavos;
+    }
+
+    /**
+     * Calcula el costo total de la reserva, incluyendo costos adicionales. Si el hotel ya
+     * la agregó, es el costo con que la registró su motor de tarifas; si no, es una
+     * cotización con las tarifas de la clase de habitación, que puede no coincidir con
+     * las de un hotel con tarifas propias ({@link Hotel#calcularCosto(Reserva)}).
+     *
+     * @return el costo total de la reserva
+     */
+    public double calcularCostoTotal() {
+        if (!tieneCosto()) {
+            return habitacion.costoCentavos(dias, personas) / 100.0;
+        }
+        return costoCentavos / 100.0;
+    }
+
+    /**
+     * Obtiene el costo total de la reserva en centavos.
+     *
+     * @return el costo total de la reserva en centavos, o {@link #SIN_COSTO} si todavía
+     *         no se agregó a un hotel
+     */
+    public long getCostoCentavos() {
+        return costoCentavos;
+    }
+
+    /**
+     * Indica si el hotel ya tarificó la reserva.
+     *
+     * @return true si la reserva tiene costo
+     */
+    public boolean tieneCosto() {
+        return costoCentavos != SIN_COSTO;
+    }
+
+    /**
+     * Fija el costo con que el hotel registró la reserva.
+     *
+     * @param costoCentavos el costo total de la reserva en centavos
+     */
+    void asignarCosto(long costoCentavos) {
+        this.costoCentavos = costoCentavos;
+    }
+
+    /**
+     * Obtiene el tipo de habitación reservada.
+     *
+     * @return el tipo de la habitación (por ejemplo, Estandar, Ejecutiva, Suite)
+     */
+    public String getTipoHabitacion() {
+        return habitacion.tipo;
+    }
+
+    /**
+     * Obtiene el código del tipo de habitación reservada en el {@link RegistroTiposHabitacion}.
+     *
+     * @return el código del tipo, o -1 si el tipo no está registrado
+     */
+    public int getCodigoTipo() {
+        return habitacion.getCodigo();
+    }
+
+    /**
+     * Obtiene la fecha de inicio de la reserva.
+     *
+     * @return la fecha de inicio de la reserva
+     */
+    public LocalDate getFechaInicio() {
+        return fechaInicio;
+    }
+
+    /**
+     * Obtiene la fecha de inicio de la reserva como día desde la época.
+     *
+     * @return el número de días desde el 1 de enero de 1970 hasta la fecha de inicio
+     */
+    public int getDiaEpoch() {
+        return diaEpoch;
+    }
+
+    /**
+     * Obtiene el mes de inicio de la reserva.
+     *
+     * @return la clave del mes de inicio con el formato aaaamm
+     */
+    public int getClaveMes() {
+        return claveMes;
+    }
+
+    /**
+     * Obtiene el número de días de la reserva.
+     *
+     * @return el número de días de la reserva
+     */
+    public int getDias() {
+        return dias;
+    }
+
+    /**
+     * Obtiene el número de personas de la reserva.
+     *
+     * @return el número de personas que se hospedarán
+     */
+    public int getPersonas() {
+        return personas;
+    }
+
+    /**
+     * Devuelve una representación en cadena de la reserva, que incluye tipo de habitación,
+     * fecha de inicio, duración, número de personas y, si ya lo tiene, costo total.
+     *
+     * @return una cadena con los detalles de la reserva
+     */
+    @Override
+    public String toString() {
+        String linea = habitacion.tipo + "," + fechaInicio + "," + dias + "," + personas;
+        return tieneCosto() ? linea + "," + calcularCostoTotal() : linea;
+    }
+}
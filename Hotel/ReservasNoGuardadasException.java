@@ -0,0 +1,22 @@
+package Hotel;
+
+import java.io.IOException;
+
+/**
+ * Señala que unas reservas se agregaron al hotel pero no pudieron guardarse en el
+ * diario ni en el archivo de reservas. Las reservas siguen ocupando su lugar en memoria,
+ * así que no deben volver a pedirse: se perderán si la aplicación termina antes de que
+ * otra escritura del archivo las incluya.
+ */
+class ReservasNoGuardadasException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor de la clase ReservasNoGuardadasException.
+     *
+     * @param causa el error al guardar las reservas
+     */
+    public ReservasNoGuardadasException(IOException causa) {
+        super("Las reservas se agregaron al hotel pero no se pudieron guardar: " + causa.getMessage(), causa);
+    }
+}
@@ -0,0 +1,91 @@
+package Hotel;
+
+/**
+ * La clase ResultadoCarga resume una carga de reservas desde un archivo:
+ * cuántas filas se cargaron, cuántas se descartaron y cuánto tiempo tomó.
+ * También cuenta las reservas cargadas que superaban el inventario del hotel,
+ * que se conservan pero conviene informar.
+ */
+class ResultadoCarga {
+    private final long filas;
+    private final long descartadas;
+    private final long sobreocupadas;
+    private final long nanos;
+
+    /**
+     * Constructor de la clase ResultadoCarga.
+     *
+     * @param filas el número de reservas cargadas
+     * @param descartadas el número de líneas descartadas por estar mal formadas o no ser válidas
+     * @param nanos la duración de la carga en nanosegundos
+     */
+    public ResultadoCarga(long filas, long descartadas, long nanos) {
+        this(filas, descartadas, 0, nanos);
+    }
+
+    /**
+     * Constructor de la clase ResultadoCarga para una carga en un hotel con inventario.
+     *
+     * @param filas el número de reservas cargadas
+     * @param descartadas el número de líneas descartadas por estar mal formadas o no ser válidas
+     * @param sobreocupadas el número de reservas cargadas que superaban el inventario
+     * @param nanos la duración de la carga en nanosegundos
+     */
+    public ResultadoCarga(long filas, long descartadas, long sobreocupadas, long nanos) {
+        this.filas = filas;
+        this.descartadas = descartadas;
+        this.sobreocupadas = sobreocupadas;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Obtiene el número de reservas cargadas.
+     *
+     * @return el número de reservas cargadas
+     */
+    public long getFilas() {
+        return filas;
+    }
+
+    /**
+     * Obtiene el número de líneas descartadas.
+     *
+     * @return el número de líneas mal formadas, de tipo desconocido o con una reserva no válida
+     */
+    public long getDescartadas() {
+        return descartadas;
+    }
+
+    /**
+     * Obtiene el número de reservas cargadas que superaban el inventario del hotel.
+     * Ya estaban guardadas, así que se cargaron igualmente.
+     *
+     * @return el número de reservas cargadas sin disponibilidad
+     */
+    public long getSobreocupadas() {
+        return sobreocupadas;
+    }
+
+    /**
+     * Obtiene la duración de la carga en milisegundos.
+     *
+     * @return la duración de la carga en milisegundos
+     */
+    public double getMilisegundos() {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Calcula el rendimiento de la carga.
+     *
+     * @return el número de reservas cargadas por segundo
+     */
+    public double getFilasPorSegundo() {
+        return nanos == 0 ? 0 : filas * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d reservas en %.1f ms (%.0f filas/s)", filas, getMilisegundos(), getFilasPorSegundo());
+    }
+}
@@ -0,0 +1,177 @@
+package Hotel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * La clase ServicioReservas agrega reservas a un hotel y las deja guardadas,
+ * registrándolas en el diario de reservas y compactándolo cada cierto número de altas.
+ * Es el punto de entrada común del menú de consola y del servidor HTTP.
+ *
+ * Puede usarse desde varios hilos a la vez. Cada alta se agrega al hotel y se registra
+ * en el diario con un candado de lectura tomado, y la compactación toma el de escritura:
+ * así la instantánea contiene exactamente las reservas ya registradas en el diario,
+ * como exige {@link DiarioReservas#compactarEnSegundoPlano(List)}.
+ *
+ * Sin diario, cada alta vuelve a escribir el archivo de reservas completo; sin archivo,
+ * las reservas solo quedan en memoria.
+ *
+ * Las reservas se agregan al hotel antes de guardarlas, porque solo el hotel sabe si son
+ * válidas y si tienen disponibilidad. Si después no pueden guardarse, el alta no se
+ * deshace y se informa con una {@link ReservasNoGuardadasException}, distinta de los
+ * errores que impiden el alta: quien llama sabe así que no debe volver a pedirlas.
+ */
+class ServicioReservas implements Closeable {
+    private static final int COMPACTAR_CADA = 1000;
+
+    private final Hotel hotel;
+    private final String archivo;
+    private final DiarioReservas diario;
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private final AtomicInteger desdeCompactacion = new AtomicInteger();
+
+    /**
+     * Constructor de la clase ServicioReservas.
+     *
+     * @param hotel el hotel al que se agregan las reservas
+     * @param archivo el archivo de reservas, o null para no guardarlas
+     * @param diario el diario abierto sobre ese archivo, o null para guardar el archivo completo
+     */
+    public ServicioReservas(Hotel hotel, String archivo, DiarioReservas diario) {
+        this.hotel = hotel;
+        this.archivo = archivo;
+        this.diario = diario;
+    }
+
+    /**
+     * Constructor de un servicio que solo guarda las reservas en memoria.
+     *
+     * @param hotel el hotel al que se agregan las reservas
+     */
+    public ServicioReservas(Hotel hotel) {
+        this(hotel, null, null);
+    }
+
+    public Hotel getHotel() {
+        return hotel;
+    }
+
+    /**
+     * Agrega una reserva al hotel y la guarda.
+     *
+     * @param reserva la reserva a agregar
+     * @throws IllegalArgumentException si la reserva no es válida
+     * @throws SinDisponibilidadException si no hay disponibilidad
+     * @throws ReservasNoGuardadasException si la reserva se agregó al hotel pero no pudo guardarse
+     */
+    public void reservar(Reserva reserva) throws ReservasNoGuardadasException {
+        candado.readLock().lock();
+        try {
+            hotel.agregarReserva(reserva);
+            guardar(List.of(reserva));
+        } finally {
+            candado.readLock().unlock();
+        }
+        compactarSiCorresponde(1);
+    }
+
+    /**
+     * Agrega un lote de reservas al hotel en un solo paso y lo guarda con una sola escritura.
+     *
+     * @param reservas las reservas a agregar
+     * @throws IllegalArgumentException si alguna reserva no es válida; no se agrega ninguna
+     * @throws SinDisponibilidadException si alguna reserva no tiene disponibilidad; no se agrega ninguna
+     * @throws ReservasNoGuardadasException si las reservas se agregaron al hotel pero no pudieron
+     *                                      guardarse
+     * @see Hotel#agregarReservas(java.util.Collection)
+     */
+    public void reservarTodas(List<Reserva> reservas) throws ReservasNoGuardadasException {
+        candado.readLock().lock();
+        try {
+            hotel.agregarReservas(reservas);
+            guardar(reservas);
+        } finally {
+            candado.readLock().unlock();
+        }
+        compactarSiCorresponde(reservas.size());
+    }
+
+    private void guardar(List<Reserva> reservas) throws ReservasNoGuardadasException {
+        try {
+            if (diario != null) {
+                diario.registrarTodas(reservas);
+            } else if (archivo != null) {
+                synchronized (this) {
+                    GestorArchivos.guardarReservas(hotel.obtenerReservasActivas(), archivo);
+                }
+            }
+        } catch (IOException e) {
+            throw new ReservasNoGuardadasException(e);
+        }
+    }
+
+    /**
+     * Inicia una compactación en segundo plano cada {@value #COMPACTAR_CADA} altas. Las
+     * reservas ya están en el diario, así que un error al compactar no afecta al alta
+     * que lo provocó: se informa y el diario sigue creciendo hasta la siguiente.
+     */
+    private void compactarSiCorresponde(int agregadas) {
+        if (diario == null || desdeCompactacion.addAndGet(agregadas) < COMPACTAR_CADA) {
+            return;
+        }
+        candado.writeLock().lock();
+        try {
+            if (desdeCompactacion.get() >= COMPACTAR_CADA) {
+                desdeCompactacion.set(0);
+                diario.compactarEnSegundoPlano(hotel.obtenerReservasActivas());
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo compactar el diario de reservas: " + e.getMessage());
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compacta el diario con todas las reservas del hotel y espera a que la nueva
+     * instantánea quede escrita; por ejemplo, para sacar de ella las reservas recién
+     * archivadas en el histórico.
+     *
+     * @throws IOException si ocurre un error al compactar el diario
+     */
+    public void compactar() throws IOException {
+        if (diario == null) {
+            return;
+        }
+        candado.writeLock().lock();
+        try {
+            desdeCompactacion.set(0);
+            diario.compactar(hotel.obtenerReservasActivas());
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compacta el diario con todas las reservas del hotel y lo cierra.
+     *
+     * @throws IOException si ocurre un error al compactar o cerrar el diario
+     */
+    @Override
+    public void close() throws IOException {
+        if (diario == null) {
+            return;
+        }
+        candado.writeLock().lock();
+        try {
+            diario.compactar(hotel.obtenerReservasActivas());
+            diario.close();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package Hotel;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La clase ServidorReservas expone el hotel por HTTP, con el servidor incluido en el JDK.
+ * Todas las respuestas son texto plano en UTF-8, con una línea por resultado y los
+ * campos separados por comas, en el mismo formato que el archivo de reservas.
+ *
+ * <ul>
+ * <li>{@code POST /reservas}: agrega las reservas del cuerpo, una por línea con el formato
+ * {@code tipo,aaaa-mm-dd,dias,personas}. Varias líneas se agregan como un lote, todas o
+ * ninguna. Responde 201 con el costo de cada una, 400 si alguna no es válida o 409 si
+ * alguna no tiene disponibilidad. Si las reservas se agregaron pero no pudieron guardarse,
+ * responde igualmente 201 con la cabecera {@code X-Reservas-Guardadas: false}: las
+ * reservas existen y repetir la petición las duplicaría.</li>
+ * <li>{@code GET /reservas?cursor=0&limite=100&tipo=Estandar&desde=aaaa-mm-dd&hasta=aaaa-mm-dd}:
+ * una página de reservas, con filtros opcionales por tipo y por fechas de la estadía. La
+ * cabecera {@code X-Cursor-Siguiente} trae el cursor de la página siguiente, o -1 al final.</li>
+ * <li>{@code GET /ingresos?mes=MM&anio=aaaa}: los ingresos de cada tipo de habitación en un mes,
+ * y en la última línea el tipo con mayores ingresos, vacío si no hubo ingresos.</li>
+ * <li>{@code GET /metricas}: el resumen de {@link MetricasHotel}.</li>
+ * </ul>
+ *
+ * Cada petición se atiende en su propio hilo virtual cuando la JVM los ofrece (Java 21
+ * o posterior); en versiones anteriores se usa un grupo de hilos que crece según la demanda.
+ */
+class ServidorReservas implements Closeable {
+    private static final int LIMITE_PREDETERMINADO = 100;
+    private static final int LIMITE_MAXIMO = 10_000;
+
+    private final ServicioReservas servicio;
+    private final HttpServer servidor;
+    private final ExecutorService ejecutor;
+
+    /**
+     * Desactiva el algoritmo de Nagle en los servidores HTTP del JDK, salvo que la
+     * propiedad {@code sun.net.httpserver.nodelay} ya se haya indicado al lanzar la JVM.
+     * El servidor escribe la cabecera y el cuerpo por separado y, con Nagle activo, cada
+     * respuesta espera el ACK retardado del cliente (unos 40 ms).
+     *
+     * La propiedad vale para todos los servidores HTTP de la JVM y el JDK la lee al crear
+     * el primero, así que debe llamarse al arrancar la aplicación, antes de abrir ningún
+     * servidor.
+     */
+    static void configurarSinRetardo() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Crea el servidor y empieza a atender peticiones.
+     *
+     * @param servicio el servicio con el que se agregan y guardan las reservas
+     * @param puerto el puerto TCP, o 0 para elegir uno libre
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServidorReservas(ServicioReservas servicio, int puerto) throws IOException {
+        this.servicio = servicio;
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        this.ejecutor = crearEjecutor();
+        servidor.setExecutor(ejecutor);
+        servidor.createContext("/reservas", manejador(this::atenderReservas));
+        servidor.createContext("/ingresos", manejador(this::atenderIngresos));
+        servidor.createContext("/metricas", manejador(this::atenderMetricas));
+        servidor.start();
+    }
+
+    /**
+     * Obtiene el puerto en el que escucha el servidor.
+     *
+     * @return el puerto TCP
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Deja de aceptar peticiones, espera como mucho un segundo a las que están en curso
+     * y detiene el servidor.
+     */
+    @Override
+    public void close() {
+        servidor.stop(1);
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Crea el ejecutor de las peticiones: un hilo virtual por tarea si la JVM los ofrece,
+     * o un grupo de hilos de tipo daemon en caso contrario. Se busca por reflexión para
+     * que la clase compile y funcione también en Java 17.
+     */
+    static ExecutorService crearEjecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(tarea -> {
+                Thread hilo = new Thread(tarea, "servidor-reservas");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+
+    private void atenderReservas(HttpExchange intercambio) throws IOException {
+        switch (intercambio.getRequestMethod()) {
+            case "GET":
+                listarReservas(intercambio);
+                break;
+            case "POST":
+                crearReservas(intercambio);
+                break;
+            default:
+                responder(intercambio, 405, "Método no permitido");
+        }
+    }
+
+    private void listarReservas(HttpExchange intercambio) throws IOException {
+        Map<String, String> parametros = parametros(intercambio);
+        int cursor = entero(parametros, "cursor", 0);
+        int limite = Math.min(entero(parametros, "limite", LIMITE_PREDETERMINADO), LIMITE_MAXIMO);
+        PaginaReservas pagina = servicio.getHotel().listarReservas(cursor, limite, parametros.get("tipo"),
+                fecha(parametros, "desde"), fecha(parametros, "hasta"));
+        StringBuilder texto = new StringBuilder(pagina.size() * 48);
+        for (int i = 0; i < pagina.size(); i++) {
+            texto.append(pagina.tipoHabitacion(i)).append(',')
+                    .append(LocalDate.ofEpochDay(pagina.diaEpoch(i))).append(',')
+                    .append(pagina.dias(i)).append(',')
+                    .append(pagina.personas(i)).append(',')
+                    .append(pagina.costoCentavos(i) / 100.0).append('\n');
+        }
+        intercambio.getResponseHeaders().set("X-Cursor-Siguiente", Integer.toString(pagina.getSiguiente()));
+        responder(intercambio, 200, texto.toString());
+    }
+
+    private void crearReservas(HttpExchange intercambio) throws IOException {
+        String cuerpo;
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            cuerpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<Reserva> reservas = new ArrayList<>();
+        for (String linea : cuerpo.split("\r?\n")) {
+            if (!linea.isBlank()) {
+                reservas.add(parsearReserva(linea));
+            }
+        }
+        if (reservas.isEmpty()) {
+            throw new IllegalArgumentException("El cuerpo no contiene reservas");
+        }
+        boolean guardadas = true;
+        try {
+            if (reservas.size() == 1) {
+                servicio.reservar(reservas.get(0));
+            } else {
+                servicio.reservarTodas(reservas);
+            }
+        } catch (ReservasNoGuardadasException e) {
+            System.err.println(e.getMessage());
+            guardadas = false;
+        }
+        intercambio.getResponseHeaders().set("X-Reservas-Guardadas", Boolean.toString(guardadas));
+        StringBuilder texto = new StringBuilder();
+        for (Reserva reserva : reservas) {
+            texto.append(reserva.getTipoHabitacion()).append(',').append(reserva.getFechaInicio()).append(',')
+                    .append(reserva.getDias()).append(',').append(reserva.getPersonas()).append(',')
+                    .append(String.format(Locale.ROOT, "%.2f", servicio.getHotel().calcularCosto(reserva)))
+                    .append('\n');
+        }
+        responder(intercambio, 201, texto.toString());
+    }
+
+    private static Reserva parsearReserva(String linea) {
+        String[] partes = linea.trim().split(",");
+        if (partes.length < 4) {
+            throw new IllegalArgumentException("Reserva incompleta: " + linea);
+        }
+        Habitacion habitacion = RegistroTiposHabitacion.porTipo(partes[0]);
+        if (habitacion == null) {
+            throw new IllegalArgumentException("Tipo de habitación desconocido: " + partes[0]);
+        }
+        try {
+            return new Reserva(habitacion, Calendario.parsear(partes[1]),
+                    Integer.parseInt(partes[2]), Integer.parseInt(partes[3]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Reserva mal formada: " + linea);
+        }
+    }
+
+    private void atenderIngresos(HttpExchange intercambio) throws IOException {
+        if (!"GET".equals(intercambio.getRequestMethod())) {
+            responder(intercambio, 405, "Método no permitido");
+            return;
+        }
+        Map<String, String> parametros = parametros(intercambio);
+        int mes = entero(parametros, "mes", -1);
+        int año = entero(parametros, "anio", -1);
+        if (mes < 1 || mes > 12 || año < 0) {
+            throw new IllegalArgumentException("Indique mes (1-12) y anio");
+        }
+        IngresosPorTipo ingresos = servicio.getHotel().calcularIngresosPorTipo(mes, año);
+        StringBuilder texto = new StringBuilder();
+        for (int codigo = 0; codigo < RegistroTiposHabitacion.cantidad(); codigo++) {
+            texto.append(RegistroTiposHabitacion.nombre(codigo)).append(',')
+                    .append(String.format(Locale.ROOT, "%.2f", ingresos.getIngresosCentavos(codigo) / 100.0))
+                    .append('\n');
+        }
+        String mayor = ingresos.getTipoMayorIngresos();
+        texto.append("mayor,").append(mayor == null ? "" : mayor).append('\n');
+        responder(intercambio, 200, texto.toString());
+    }
+
+    private void atenderMetricas(HttpExchange intercambio) throws IOException {
+        responder(intercambio, 200, MetricasHotel.resumen()
+                + "cache " + servicio.getHotel().obtenerContadoresCache() + "\n");
+    }
+
+    /**
+     * Envuelve un manejador para traducir las excepciones a códigos de estado:
+     * 400 para datos no válidos, 409 para falta de disponibilidad y 500 para el resto,
+     * incluidos los demás {@link IllegalStateException}, que son errores del servidor.
+     */
+    private static HttpHandler manejador(HttpHandler manejador) {
+        return intercambio -> {
+            try {
+                manejador.handle(intercambio);
+            } catch (IllegalArgumentException e) {
+                responder(intercambio, 400, e.getMessage());
+            } catch (SinDisponibilidadException e) {
+                responder(intercambio, 409, e.getMessage());
+            } catch (IOException | RuntimeException e) {
+                responder(intercambio, 500, "Error interno: " + e.getMessage());
+            } finally {
+                intercambio.close();
+            }
+        };
+    }
+
+    private static void responder(HttpExchange intercambio, int estado, String texto) throws IOException {
+        byte[] bytes = (texto.endsWith("\n") || texto.isEmpty() ? texto : texto + "\n")
+                .getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        intercambio.sendResponseHeaders(estado, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(bytes);
+            }
+        }
+    }
+
+    private static Map<String, String> parametros(HttpExchange intercambio) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = intercambio.getRequestURI().getRawQuery();
+        if (consulta == null) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    private static LocalDate fecha(Map<String, String> parametros, String nombre) {
+        String valor = parametros.get(nombre);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Parámetro " + nombre + " no válido: " + valor);
+        }
+    }
+
+    private static int entero(Map<String, String> parametros, String nombre, int predeterminado) {
+        String valor = parametros.get(nombre);
+        if (valor == null) {
+            return predeterminado;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parámetro " + nombre + " no válido: " + valor);
+        }
+    }
+}
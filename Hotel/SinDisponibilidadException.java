@@ -0,0 +1,20 @@
+package Hotel;
+
+/**
+ * Señala que una o varias reservas no se agregaron porque alguna noche de su estadía
+ * no quedan habitaciones libres del tipo pedido. Es un rechazo esperado de los datos,
+ * distinto de cualquier otro {@link IllegalStateException}, que indica un error de
+ * programación.
+ */
+class SinDisponibilidadException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor de la clase SinDisponibilidadException.
+     *
+     * @param mensaje la descripción de las reservas rechazadas
+     */
+    public SinDisponibilidadException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,191 @@
+package Hotel;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * La clase TablaReservas guarda reservas como columnas de tipos primitivos en lugar
+ * de un objeto por reserva: el código del tipo de habitación (byte), la fecha de inicio
+ * como día desde la época (int), los días y personas (short) y el costo total en
+ * centavos (long), calculado una sola vez al agregar la reserva. Cada reserva ocupa así
+ * unos 17 bytes, y la habitación se obtiene de la instancia compartida de su tipo.
+ *
+ * La tabla solo admite agregar reservas al final; las filas ya escritas no cambian,
+ * salvo el costo, que puede fijarse con {@link #calcularCostos} antes de publicar la tabla.
+ */
+class TablaReservas {
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private byte[] tipos;
+    private int[] fechas;
+    private short[] dias;
+    private short[] personas;
+    private long[] costos;
+    private int tamaño;
+
+    /**
+     * Constructor de la clase TablaReservas.
+     * Inicializa una tabla vacía.
+     */
+    public TablaReservas() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Constructor de la clase TablaReservas con una capacidad inicial.
+     *
+     * @param capacidad el número de reservas que caben sin agrandar la tabla
+     */
+    public TablaReservas(int capacidad) {
+        capacidad = Math.max(capacidad, 1);
+        tipos = new byte[capacidad];
+        fechas = new int[capacidad];
+        dias = new short[capacidad];
+        personas = new short[capacidad];
+        costos = new long[capacidad];
+    }
+
+    /**
+     * Agrega una reserva al final de la tabla, sin costo. Es la forma en que las cargas
+     * desde archivo arman sus lotes; el costo lo fija luego el hotel con su motor de tarifas.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param diaEpoch la fecha de inicio como día desde la época
+     * @param dias el número de días de la reserva
+     * @param personas el número de personas
+     * @return la fila asignada a la reserva
+     * @throws IllegalArgumentException si el tipo no existe o los días o personas no caben en un short
+     */
+    public int agregar(int codigoTipo, int diaEpoch, int dias, int personas) {
+        return agregar(codigoTipo, diaEpoch, dias, personas, 0);
+    }
+
+    /**
+     * Agrega una reserva al final de la tabla.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param diaEpoch la fecha de inicio como día desde la época
+     * @param dias el número de días de la reserva
+     * @param personas el número de personas
+     * @param costoCentavos el costo total de la reserva en centavos
+     * @return la fila asignada a la reserva
+     * @throws IllegalArgumentException si el tipo no existe o los días o personas no caben en un short
+     */
+    public int agregar(int codigoTipo, int diaEpoch, int dias, int personas, long costoCentavos) {
+        if (RegistroTiposHabitacion.porCodigo(codigoTipo) == null) {
+            throw new IllegalArgumentException("Tipo de habitación desconocido: " + codigoTipo);
+        }
+        if (dias < 0 || dias > Short.MAX_VALUE || personas < 0 || personas > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Días o personas fuera de rango: " + dias + ", " + personas);
+        }
+        asegurarCapacidad(tamaño + 1);
+        this.tipos[tamaño] = (byte) codigoTipo;
+        this.fechas[tamaño] = diaEpoch;
+        this.dias[tamaño] = (short) dias;
+        this.personas[tamaño] = (short) personas;
+        this.costos[tamaño] = costoCentavos;
+        return tamaño++;
+    }
+
+    /**
+     * Agrega una reserva al final de la tabla.
+     *
+     * @param reserva la reserva a agregar
+     * @return la fila asignada a la reserva
+     * @throws IllegalArgumentException si el tipo no existe o los días o personas no caben en un short
+     */
+    public int agregar(Reserva reserva) {
+        return agregar(reserva.getCodigoTipo(),
+                reserva.getDiaEpoch(), reserva.getDias(), reserva.getPersonas(),
+                reserva.getCostoCentavos());
+    }
+
+    /**
+     * Calcula y guarda el costo de todas las filas con un motor de tarifas.
+     *
+     * @param motor el motor de tarifas con que se calculan los costos
+     */
+    public void calcularCostos(MotorTarifas motor) {
+        for (int i = 0; i < tamaño; i++) {
+            costos[i] = motor.costoCentavos(tipos[i], dias[i], personas[i]);
+        }
+    }
+
+    /**
+     * Agrega al final de esta tabla todas las filas de otra, en su mismo orden.
+     *
+     * @param otra la tabla cuyas filas se copian
+     * @return la fila asignada a la primera reserva copiada
+     */
+    public int agregarTodas(TablaReservas otra) {
+        int primera = tamaño;
+        asegurarCapacidad(tamaño + otra.tamaño);
+        System.arraycopy(otra.tipos, 0, tipos, tamaño, otra.tamaño);
+        System.arraycopy(otra.fechas, 0, fechas, tamaño, otra.tamaño);
+        System.arraycopy(otra.dias, 0, dias, tamaño, otra.tamaño);
+        System.arraycopy(otra.personas, 0, personas, tamaño, otra.tamaño);
+        System.arraycopy(otra.costos, 0, costos, tamaño, otra.tamaño);
+        tamaño += otra.tamaño;
+        return primera;
+    }
+
+    private void asegurarCapacidad(int minimo) {
+        if (minimo <= tipos.length) {
+            return;
+        }
+        int capacidad = Math.max(minimo, tipos.length + (tipos.length >> 1));
+        tipos = Arrays.copyOf(tipos, capacidad);
+        fechas = Arrays.copyOf(fechas, capacidad);
+        dias = Arrays.copyOf(dias, capacidad);
+        personas = Arrays.copyOf(personas, capacidad);
+        costos = Arrays.copyOf(costos, capacidad);
+    }
+
+    /**
+     * Obtiene el número de reservas de la tabla.
+     *
+     * @return el número de reservas
+     */
+    public int tamaño() {
+        return tamaño;
+    }
+
+    /**
+     * Obtiene una vista de solo lectura de las reservas que hay ahora en la tabla.
+     * La vista no cambia aunque después se agreguen más reservas.
+     *
+     * @return la vista de las reservas actuales
+     */
+    public VistaReservas vista() {
+        return new VistaReservas(tipos, fechas, dias, personas, costos, tamaño);
+    }
+
+    /**
+     * Construye una tabla con las reservas de una lista.
+     *
+     * @param reservas las reservas a copiar
+     * @return una tabla con las mismas reservas, en el mismo orden
+     */
+    public static TablaReservas de(Iterable<Reserva> reservas) {
+        TablaReservas tabla = new TablaReservas();
+        for (Reserva reserva : reservas) {
+            tabla.agregar(reserva);
+        }
+        return tabla;
+    }
+
+    /**
+     * Construye la reserva de una fila a partir de sus columnas.
+     *
+     * @param codigoTipo el código del tipo de habitación
+     * @param diaEpoch la fecha de inicio como día desde la época
+     * @param dias el número de días de la reserva
+     * @param personas el número de personas
+     * @param costoCentavos el costo total de la reserva en centavos
+     * @return la reserva, con la habitación compartida de su tipo
+     */
+    static Reserva reserva(int codigoTipo, int diaEpoch, int dias, int personas, long costoCentavos) {
+        return new Reserva(RegistroTiposHabitacion.porCodigo(codigoTipo), LocalDate.ofEpochDay(diaEpoch),
+                dias, personas, costoCentavos);
+    }
+}
@@ -0,0 +1,150 @@
+package Hotel;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * La clase TablaTarifas es un motor de tarifas basado en reglas por tipo de habitación.
+ * Por omisión, el costo de cada tipo lo calcula su propia clase de habitación, con su
+ * tarifa base y {@link Habitacion#calcularCostoAdicional(int, int)}. Un archivo de
+ * tarifas puede reemplazarlo para algunos tipos por la regla:
+ *
+ * <pre>
+ *     base * dias + persona * personas + noche * dias + fijo
+ * </pre>
+ *
+ * donde base es la tarifa por noche, persona el cargo por cada persona, noche el cargo
+ * adicional por noche y fijo un cargo único por reserva. Estas reglas se guardan en
+ * centavos en arreglos indexados por código de tipo, por lo que calcular el costo de un
+ * tipo del archivo no requiere ninguna llamada polimórfica.
+ *
+ * Las reglas pueden cargarse desde un archivo de propiedades como este (los espacios
+ * del nombre del tipo se escriben con una barra invertida):
+ *
+ * <pre>
+ *     Estandar.base=50
+ *     Ejecutiva.base=100
+ *     Ejecutiva.persona=15
+ *     Ejecutiva.noche=10
+ *     Suite\ Presidencial.base=250
+ *     Suite\ Presidencial.noche=50
+ *     Suite\ Presidencial.fijo=30
+ * </pre>
+ *
+ * Las reglas de un tipo que no aparecen en el archivo valen 0, y los tipos que el archivo
+ * no menciona conservan el costo de su clase, de modo que registrar un tipo nuevo
+ * no obliga a cambiar los archivos de tarifas existentes.
+ */
+class TablaTarifas implements MotorTarifas {
+    private static final String[] REGLAS = {"base", "persona", "noche", "fijo"};
+
+    private final long[] base;
+    private final long[] persona;
+    private final long[] noche;
+    private final long[] fijo;
+    private final Habitacion[] sinReglas;
+
+    private TablaTarifas(int tipos) {
+        base = new long[tipos];
+        persona = new long[tipos];
+        noche = new long[tipos];
+        fijo = new long[tipos];
+        sinReglas = new Habitacion[tipos];
+    }
+
+    /**
+     * Construye la tabla en la que cada tipo calcula su costo con su propia clase de
+     * habitación.
+     *
+     * @return la tabla de tarifas predeterminada
+     */
+    public static TablaTarifas predeterminada() {
+        TablaTarifas tabla = new TablaTarifas(RegistroTiposHabitacion.cantidad());
+        for (int codigo = 0; codigo < RegistroTiposHabitacion.cantidad(); codigo++) {
+            tabla.sinReglas[codigo] = RegistroTiposHabitacion.porCodigo(codigo);
+        }
+        return tabla;
+    }
+
+    /**
+     * Carga la tabla de tarifas desde un archivo de propiedades. Los tipos que el archivo
+     * no menciona calculan su costo con su propia clase de habitación.
+     *
+     * @param archivo el nombre o ruta del archivo de tarifas
+     * @return la tabla de tarifas del archivo
+     * @throws IOException si ocurre un error al leer el archivo
+     * @throws IllegalArgumentException si una clave no corresponde a un tipo y regla conocidos,
+     *                                  o un importe no es válido
+     */
+    public static TablaTarifas cargar(String archivo) throws IOException {
+        Properties propiedades = new Properties();
+        try (InputStream entrada = new FileInputStream(archivo);
+             Reader lector = new InputStreamReader(entrada, StandardCharsets.UTF_8)) {
+            propiedades.load(lector);
+        }
+        TablaTarifas tabla = new TablaTarifas(RegistroTiposHabitacion.cantidad());
+        boolean[] mencionados = new boolean[RegistroTiposHabitacion.cantidad()];
+        for (String clave : propiedades.stringPropertyNames()) {
+            int punto = clave.lastIndexOf('.');
+            int codigo = punto < 0 ? -1 : RegistroTiposHabitacion.codigoDe(clave.substring(0, punto));
+            if (codigo < 0) {
+                throw new IllegalArgumentException("Tipo de habitación desconocido en la tarifa: " + clave);
+            }
+            mencionados[codigo] = true;
+            long centavos = aCentavos(new BigDecimal(propiedades.getProperty(clave).trim()));
+            switch (clave.substring(punto + 1)) {
+                case "base":
+                    tabla.base[codigo] = centavos;
+                    break;
+                case "persona":
+                    tabla.persona[codigo] = centavos;
+                    break;
+                case "noche":
+                    tabla.noche[codigo] = centavos;
+                    break;
+                case "fijo":
+                    tabla.fijo[codigo] = centavos;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Regla de tarifa desconocida: " + clave
+                            + " (se esperaba " + String.join(", ", REGLAS) + ")");
+            }
+        }
+        for (int codigo = 0; codigo < mencionados.length; codigo++) {
+            if (!mencionados[codigo]) {
+                tabla.sinReglas[codigo] = RegistroTiposHabitacion.porCodigo(codigo);
+            }
+        }
+        return tabla;
+    }
+
+    @Override
+    public long costoCentavos(int codigoTipo, int dias, int personas) {
+        Habitacion habitacion = sinReglas[codigoTipo];
+        if (habitacion != null) {
+            return habitacion.costoCentavos(dias, personas);
+        }
+        return (base[codigoTipo] + noche[codigoTipo]) * dias + persona[codigoTipo] * personas + fijo[codigoTipo];
+    }
+
+    /**
+     * Convierte un importe a centavos.
+     *
+     * @param importe el importe, con como máximo dos decimales
+     * @return el importe en centavos
+     * @throws IllegalArgumentException si el importe tiene más de dos decimales
+     */
+    static long aCentavos(BigDecimal importe) {
+        try {
+            return importe.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Importe no válido: " + importe, e);
+        }
+    }
+}
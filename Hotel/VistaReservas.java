@@ -0,0 +1,129 @@
+package Hotel;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * La clase VistaReservas es una vista de solo lectura sobre las reservas de una
+ * {@link TablaReservas} en un momento dado. Se puede usar como una lista de reservas,
+ * que se construyen al pedirlas, o leer directamente sus columnas por posición
+ * sin crear ningún objeto.
+ *
+ * Como la tabla solo agrega filas al final, la vista sigue siendo válida y no cambia
+ * aunque después se agreguen más reservas.
+ */
+class VistaReservas extends AbstractList<Reserva> implements RandomAccess {
+    private final byte[] tipos;
+    private final int[] fechas;
+    private final short[] dias;
+    private final short[] personas;
+    private final long[] costos;
+    private final int tamaño;
+
+    VistaReservas(byte[] tipos, int[] fechas, short[] dias, short[] personas, long[] costos, int tamaño) {
+        this.tipos = tipos;
+        this.fechas = fechas;
+        this.dias = dias;
+        this.personas = personas;
+        this.costos = costos;
+        this.tamaño = tamaño;
+    }
+
+    /**
+     * Construye la reserva de una posición.
+     *
+     * @param i la posición de la reserva
+     * @return la reserva, con la habitación compartida de su tipo
+     */
+    @Override
+    public Reserva get(int i) {
+        verificarIndice(i);
+        return TablaReservas.reserva(tipos[i], fechas[i], dias[i], personas[i], costos[i]);
+    }
+
+    @Override
+    public int size() {
+        return tamaño;
+    }
+
+    /**
+     * Obtiene el código del tipo de habitación de una reserva.
+     *
+     * @param i la posición de la reserva
+     * @return el código del tipo de habitación
+     */
+    public int codigoTipo(int i) {
+        verificarIndice(i);
+        return tipos[i];
+    }
+
+    /**
+     * Obtiene el tipo de habitación de una reserva.
+     *
+     * @param i la posición de la reserva
+     * @return el tipo de habitación registrado
+     */
+    public String tipoHabitacion(int i) {
+        return RegistroTiposHabitacion.nombre(codigoTipo(i));
+    }
+
+    /**
+     * Obtiene la fecha de inicio de una reserva como día desde la época (1970-01-01).
+     *
+     * @param i la posición de la reserva
+     * @return el día de inicio desde la época
+     */
+    public int diaEpoch(int i) {
+        verificarIndice(i);
+        return fechas[i];
+    }
+
+    /**
+     * Obtiene el número de días de una reserva.
+     *
+     * @param i la posición de la reserva
+     * @return el número de días
+     */
+    public int dias(int i) {
+        verificarIndice(i);
+        return dias[i];
+    }
+
+    /**
+     * Obtiene el número de personas de una reserva.
+     *
+     * @param i la posición de la reserva
+     * @return el número de personas
+     */
+    public int personas(int i) {
+        verificarIndice(i);
+        return personas[i];
+    }
+
+    /**
+     * Obtiene el costo total de una reserva sin construirla.
+     *
+     * @param i la posición de la reserva
+     * @return el costo total de la reserva
+     */
+    public double costoTotal(int i) {
+        return costoCentavos(i) / 100.0;
+    }
+
+    /**
+     * Obtiene el costo total de una reserva en centavos, calculado al agregarla al hotel.
+     *
+     * @param i la posición de la reserva
+     * @return el costo total de la reserva en centavos
+     */
+    public long costoCentavos(int i) {
+        verificarIndice(i);
+        return costos[i];
+    }
+
+    private void verificarIndice(int i) {
+        if (i < 0 || i >= tamaño) {
+            throw new IndexOutOfBoundsException("Posición " + i + " fuera de la vista de " + tamaño + " reservas");
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package Hotel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * La clase BenchmarkHotel mide con JMH los caminos más usados del sistema: el cálculo
+ * del costo de una reserva, las consultas de ingresos por tipo y mes con distintos
+ * tamaños de historial, con y sin cache, y la escritura y lectura del archivo de
+ * reservas.
+ *
+ * Las reservas se generan con {@link GeneradorReservas} y una semilla fija, para que los
+ * resultados sean comparables entre ejecuciones. Se compila con el perfil jmh:
+ *
+ * <pre>
+ *     mvn -Pjmh package
+ *     java -jar target/benchmarks.jar
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BenchmarkHotel {
+    private static final long SEMILLA = 42;
+    private static final int RESERVAS_COSTO = 1 << 16;
+    private static final int CONSULTAS = 1_000;
+
+    /**
+     * Reservas de todos los tipos registrados mezcladas, como columnas, para medir el
+     * costo sin construir objetos.
+     */
+    @State(Scope.Benchmark)
+    public static class Costos {
+        MotorTarifas motor;
+        Habitacion[] habitaciones;
+        int[] tipos;
+        int[] dias;
+        int[] personas;
+
+        @Setup
+        public void preparar() {
+            motor = TablaTarifas.predeterminada();
+            VistaReservas vista = new GeneradorReservas(SEMILLA).generar(RESERVAS_COSTO).vista();
+            habitaciones = new Habitacion[vista.size()];
+            tipos = new int[vista.size()];
+            dias = new int[vista.size()];
+            personas = new int[vista.size()];
+            for (int i = 0; i < vista.size(); i++) {
+                tipos[i] = vista.codigoTipo(i);
+                habitaciones[i] = RegistroTiposHabitacion.porCodigo(tipos[i]);
+                dias[i] = vista.dias(i);
+                personas[i] = vista.personas(i);
+            }
+        }
+    }
+
+    /**
+     * Un hotel con un historial del tamaño indicado.
+     */
+    @State(Scope.Benchmark)
+    public static class Historial {
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        int cantidad;
+
+        Hotel hotel;
+        int consulta;
+
+        @Setup
+        public void preparar() {
+            hotel = new GeneradorReservas(SEMILLA).generarHotel(cantidad);
+        }
+    }
+
+    /**
+     * Un archivo de reservas en el directorio temporal.
+     */
+    @State(Scope.Benchmark)
+    public static class Archivo {
+        @Param({"100000", "1000000"})
+        int cantidad;
+
+        Hotel hotel;
+        List<Reserva> reservas;
+        String csv;
+
+        @Setup
+        public void preparar() throws IOException {
+            hotel = new GeneradorReservas(SEMILLA).generarHotel(cantidad);
+            reservas = hotel.obtenerReservasActivas();
+            csv = File.createTempFile("benchmark-reservas", ".csv").getPath();
+            GestorArchivos.guardarReservas(reservas, csv);
+        }
+
+        @TearDown(Level.Trial)
+        public void borrar() {
+            new File(csv).delete();
+        }
+    }
+
+    /**
+     * Costo de una reserva con el motor de tarifas del hotel, el que se usa al agregarla,
+     * con todos los tipos registrados mezclados.
+     */
+    @Benchmark
+    @OperationsPerInvocation(RESERVAS_COSTO)
+    public long motorTarifasCostoCentavos(Costos costos) {
+        long total = 0;
+        for (int i = 0; i < costos.tipos.length; i++) {
+            total += costos.motor.costoCentavos(costos.tipos[i], costos.dias[i], costos.personas[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Costo adicional calculado por cada subclase de {@link Habitacion}, con todos los
+     * tipos registrados mezclados en el mismo punto de llamada polimórfica.
+     */
+    @Benchmark
+    @OperationsPerInvocation(RESERVAS_COSTO)
+    public double habitacionCalcularCostoAdicional(Costos costos) {
+        double total = 0;
+        for (int i = 0; i < costos.habitaciones.length; i++) {
+            total += costos.habitaciones[i].calcularCostoAdicional(costos.personas[i], costos.dias[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Ingresos de un tipo en un mes sin cache: la cache se vacía antes de cada consulta,
+     * así que se mide el cubo de ingresos y el guardado del resultado.
+     */
+    @Benchmark
+    public double ingresosPorTipoYMesSinCache(Historial historial) {
+        historial.hotel.vaciarCache();
+        return ingresosPorTipoYMes(historial);
+    }
+
+    /**
+     * Ingresos de un tipo en un mes respondidos desde la cache; las consultas recorren
+     * menos claves que las que caben en la cache.
+     */
+    @Benchmark
+    public double ingresosPorTipoYMesConCache(Historial historial) {
+        return ingresosPorTipoYMes(historial);
+    }
+
+    /**
+     * Tipo con mayores ingresos en un mes sin cache.
+     */
+    @Benchmark
+    public String tipoHabitacionMayorIngresosMesSinCache(Historial historial) {
+        historial.hotel.vaciarCache();
+        int i = historial.consulta++ % CONSULTAS;
+        return historial.hotel.tipoHabitacionMayorIngresosMes(1 + i % 12, 2015 + i % 10);
+    }
+
+    private static double ingresosPorTipoYMes(Historial historial) {
+        int i = historial.consulta++ % CONSULTAS;
+        return historial.hotel.calcularIngresosPorTipoYMes(
+                RegistroTiposHabitacion.nombre(i % RegistroTiposHabitacion.cantidad()), 1 + i % 12, 2015 + i % 10);
+    }
+
+    /**
+     * Escritura del archivo de reservas completo.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public long guardarReservas(Archivo archivo) throws IOException {
+        GestorArchivos.guardarReservas(archivo.reservas, archivo.csv);
+        return new File(archivo.csv).length();
+    }
+
+    /**
+     * Lectura del archivo de reservas completo en un hotel vacío, reserva por reserva.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public int cargarReservas(Archivo archivo) throws IOException {
+        return GestorArchivos.cargarReservas(archivo.csv, new Hotel()).size();
+    }
+
+    /**
+     * Lectura del archivo de reservas completo en un hotel vacío, en paralelo.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public void cargarReservasParalelo(Archivo archivo, Blackhole sumidero) throws IOException {
+        sumidero.consume(GestorArchivos.cargarReservasParalelo(archivo.csv, new Hotel(),
+                Runtime.getRuntime().availableProcessors()).getFilas());
+    }
+}
@@ -0,0 +1,181 @@
+package Hotel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Prueba de carga concurrente del hotel: 16 hilos agregan reservas, solas y en lotes,
+ * mientras 4 hilos consultan. Al terminar no debe faltar ninguna reserva, y el cubo de
+ * ingresos, el índice por fecha y la disponibilidad deben dar lo mismo que recorrer la
+ * tabla completa.
+ */
+class HotelConcurrenciaTest {
+    private static final int ESCRITORES = 16;
+    private static final int LECTORES = 4;
+    private static final int RESERVAS_POR_ESCRITOR = 5_000;
+    private static final int TAMAÑO_LOTE = 10;
+    private static final LocalDate PRIMER_DIA = LocalDate.of(2024, 1, 1);
+    private static final int DIAS_DEL_RANGO = 3 * 365;
+
+    @Test
+    void escrituras_y_lecturas_simultaneas_no_pierden_reservas() throws InterruptedException {
+        Hotel hotel = new Hotel();
+        Queue<Throwable> errores = new ConcurrentLinkedQueue<>();
+        AtomicBoolean escribiendo = new AtomicBoolean(true);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> escritores = new ArrayList<>();
+        List<Thread> lectores = new ArrayList<>();
+
+        for (int e = 0; e < ESCRITORES; e++) {
+            int escritor = e;
+            escritores.add(iniciar(errores, () -> {
+                salida.await();
+                escribir(hotel, escritor);
+            }));
+        }
+        for (int l = 0; l < LECTORES; l++) {
+            lectores.add(iniciar(errores, () -> {
+                salida.await();
+                leer(hotel, escribiendo);
+            }));
+        }
+        salida.countDown();
+        for (Thread hilo : escritores) {
+            hilo.join();
+        }
+        escribiendo.set(false);
+        for (Thread hilo : lectores) {
+            hilo.join();
+        }
+        assertTrue(errores.isEmpty(), () -> "Errores en los hilos: " + errores);
+
+        VistaReservas vista = hotel.obtenerReservasActivas();
+        assertEquals(ESCRITORES * RESERVAS_POR_ESCRITOR, vista.size());
+
+        // Cada escritor marca sus reservas con su número de personas
+        int[] porEscritor = new int[ESCRITORES];
+        long[] porTipo = new long[RegistroTiposHabitacion.cantidad()];
+        long ingresos = 0;
+        long noches = 0;
+        for (int i = 0; i < vista.size(); i++) {
+            porEscritor[vista.personas(i) - 1]++;
+            porTipo[vista.codigoTipo(i)]++;
+            ingresos += vista.costoCentavos(i);
+            noches += vista.dias(i);
+        }
+        for (int e = 0; e < ESCRITORES; e++) {
+            assertEquals(RESERVAS_POR_ESCRITOR, porEscritor[e], "reservas del escritor " + e);
+        }
+
+        AgregadoReservas agregado = hotel.consultarAgregado(1, 2024, 12, 2027);
+        for (int codigo = 0; codigo < porTipo.length; codigo++) {
+            assertEquals(porTipo[codigo], agregado.getReservas(RegistroTiposHabitacion.nombre(codigo)));
+        }
+        assertEquals(ingresos, Math.round(agregado.getTotalIngresos() * 100));
+
+        OcupacionHotel ocupacion = hotel.calcularOcupacion(PRIMER_DIA, PRIMER_DIA.plusYears(4));
+        assertEquals(noches, ocupacion.getTotalNochesOcupadas());
+
+        LocalDate desde = PRIMER_DIA.plusDays(400);
+        LocalDate hasta = desde.plusDays(6);
+        assertEquals(contarEnRango(vista, desde, hasta), contarPaginas(hotel, desde, hasta));
+    }
+
+    private static void escribir(Hotel hotel, int escritor) {
+        SplittableRandom aleatorio = new SplittableRandom(escritor);
+        List<Reserva> lote = new ArrayList<>();
+        for (int i = 0; i < RESERVAS_POR_ESCRITOR; i++) {
+            Reserva reserva = new Reserva(
+                    RegistroTiposHabitacion.porCodigo(aleatorio.nextInt(RegistroTiposHabitacion.cantidad())),
+                    PRIMER_DIA.plusDays(aleatorio.nextInt(DIAS_DEL_RANGO)),
+                    1 + aleatorio.nextInt(14), escritor + 1);
+            // La mitad de los escritores agrega de a una y la otra mitad en lotes
+            if (escritor % 2 == 0) {
+                hotel.agregarReserva(reserva);
+            } else {
+                lote.add(reserva);
+                if (lote.size() == TAMAÑO_LOTE) {
+                    hotel.agregarReservas(lote);
+                    lote = new ArrayList<>();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            hotel.agregarReservas(lote);
+        }
+    }
+
+    private static void leer(Hotel hotel, AtomicBoolean escribiendo) {
+        int filasAnteriores = 0;
+        long reservasAnteriores = 0;
+        SplittableRandom aleatorio = new SplittableRandom();
+        while (escribiendo.get()) {
+            // Las altas nunca se deshacen, así que lo visto solo puede crecer
+            int filas = hotel.obtenerReservasActivas().size();
+            assertTrue(filas >= filasAnteriores, "la tabla se achicó");
+            filasAnteriores = filas;
+
+            long reservas = hotel.consultarAgregado(1, 2024, 12, 2027).getTotalReservas();
+            assertTrue(reservas >= reservasAnteriores, "el cubo de ingresos se achicó");
+            reservasAnteriores = reservas;
+
+            int mes = 1 + aleatorio.nextInt(12);
+            hotel.calcularIngresosPorTipo(mes, 2025);
+            LocalDate dia = PRIMER_DIA.plusDays(aleatorio.nextInt(DIAS_DEL_RANGO));
+            hotel.calcularOcupacion(dia, dia.plusDays(30));
+            hotel.listarReservas(0, 100, null, dia, dia.plusDays(3));
+        }
+    }
+
+    private static long contarEnRango(VistaReservas vista, LocalDate desde, LocalDate hasta) {
+        long primera = desde.toEpochDay();
+        long ultima = hasta.toEpochDay();
+        long cantidad = 0;
+        for (int i = 0; i < vista.size(); i++) {
+            long inicio = vista.diaEpoch(i);
+            if (inicio <= ultima && inicio + vista.dias(i) - 1 >= primera) {
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+
+    private static long contarPaginas(Hotel hotel, LocalDate desde, LocalDate hasta) {
+        long cantidad = 0;
+        int cursor = 0;
+        while (cursor >= 0) {
+            PaginaReservas pagina = hotel.listarReservas(cursor, 500, null, desde, hasta);
+            cantidad += pagina.size();
+            cursor = pagina.getSiguiente();
+        }
+        return cantidad;
+    }
+
+    private static Thread iniciar(Queue<Throwable> errores, Tarea tarea) {
+        Thread hilo = new Thread(() -> {
+            try {
+                tarea.ejecutar();
+            } catch (Throwable e) {
+                errores.add(e);
+            }
+        });
+        hilo.start();
+        return hilo;
+    }
+
+    @FunctionalInterface
+    private interface Tarea {
+        void ejecutar() throws Exception;
+    }
+}